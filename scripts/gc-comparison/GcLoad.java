@@ -0,0 +1,66 @@
+import java.net.URI;
+import java.net.http.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.regex.*;
+
+/**
+ * Load generator for comparing GC pauses with and without the off-heap tier
+ *
+ * Warms every index up to 40, stores every sequence that avoids the slow
+ * recursive indices 41 to 50, then requests random stored sequences from
+ * several threads, half of them with Accept-Encoding: gzip.
+ *
+ * Usage: java GcLoad.java <port> <seconds> <threads>
+ */
+public class GcLoad {
+  static HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  static String base;
+  static HttpResponse<byte[]> get(String path, boolean gzip) throws Exception {
+    HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(base + path));
+    if (gzip) b.header("Accept-Encoding", "gzip");
+    return client.send(b.build(), HttpResponse.BodyHandlers.ofByteArray());
+  }
+  static double metric(String name) throws Exception {
+    String body = new String(get("/actuator/metrics/" + name, false).body());
+    Matcher m = Pattern.compile("\"value\":([0-9.E-]+)").matcher(body);
+    return m.find() ? Double.parseDouble(m.group(1)) : -1;
+  }
+  public static void main(String[] a) throws Exception {
+    base = "http://localhost:" + a[0];
+    int seconds = Integer.parseInt(a[1]);
+    int threads = Integer.parseInt(a[2]);
+    List<int[]> pairs = new ArrayList<>();
+    for (int s = 0; s <= 40; s++) for (int c = 1; s + c <= 41; c++) pairs.add(new int[]{s, c});
+    for (int s = 51; s <= 92; s++) for (int c = 1; s + c <= 93; c++) pairs.add(new int[]{s, c});
+    // Warm up: compute every index once, then store every sequence once
+    for (int i = 0; i <= 40; i++) get("/api/fibonacci/" + i, false);
+    for (int[] p : pairs) get("/api/fibonacci/sequence?start=" + p[0] + "&count=" + p[1], false);
+    for (int[] p : pairs) get("/api/fibonacci/sequence?start=" + p[0] + "&count=" + p[1], true);
+    System.gc();
+    double upStart = metric("process.uptime");
+    AtomicLong ok = new AtomicLong(), bad = new AtomicLong();
+    long end = System.nanoTime() + seconds * 1_000_000_000L;
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    for (int t = 0; t < threads; t++) {
+      final long seed = t;
+      pool.submit(() -> {
+        Random r = new Random(seed);
+        while (System.nanoTime() < end) {
+          int[] p = pairs.get(r.nextInt(pairs.size()));
+          try {
+            int st = get("/api/fibonacci/sequence?start=" + p[0] + "&count=" + p[1], r.nextBoolean()).statusCode();
+            if (st == 200) ok.incrementAndGet(); else bad.incrementAndGet();
+          } catch (Exception e) { bad.incrementAndGet(); }
+        }
+        return null;
+      });
+    }
+    pool.shutdown();
+    pool.awaitTermination(seconds + 60, TimeUnit.SECONDS);
+    double upEnd = metric("process.uptime");
+    System.out.printf("pairs=%d ok=%d bad=%d rps=%.0f window=%.1f-%.1f%n", pairs.size(), ok.get(), bad.get(),
+        ok.get() / (double) seconds, upStart, upEnd);
+  }
+}
@@ -0,0 +1,41 @@
+#!/bin/bash
+# Runs the service under GcLoad and reports the GC pauses seen while the load was running
+#
+# usage: scripts/gc-comparison/run.sh <label> <port> [application arguments...]
+#   scripts/gc-comparison/run.sh offheap 18091 --fibonacci.offheap.enabled=true
+#   scripts/gc-comparison/run.sh heap 18092 --fibonacci.compression.heap-max-entries=10000
+#
+# Build the jar first with mvn -B package -DskipTests. SECONDS_RUN (default 120) sets the load duration.
+set -e
+label=$1; port=$2; shift 2
+dir=$(cd "$(dirname "$0")" && pwd)
+jar=$(ls "$dir"/../../target/fibonacci-service-*.jar | head -1)
+out=${OUT_DIR:-/tmp/gc-comparison}
+mkdir -p "$out"
+
+java -Xms256m -Xmx512m -XX:MaxDirectMemorySize=128m -XX:+UseG1GC \
+  -Xlog:gc:file="$out/gc-$label.log":uptime -jar "$jar" \
+  --server.port="$port" --logging.level.root=WARN --logging.level.com.example=WARN \
+  --fibonacci.compression.threshold-bytes=256 "$@" > "$out/app-$label.log" 2>&1 &
+pid=$!
+trap 'kill $pid 2>/dev/null' EXIT
+for i in $(seq 1 120); do curl -sf "localhost:$port/actuator/health" > /dev/null && break; sleep 1; done
+
+result=$(java "$dir/GcLoad.java" "$port" "${SECONDS_RUN:-120}" 4)
+echo "$label $result"
+kill $pid; wait $pid 2>/dev/null || true
+
+window=$(echo "$result" | sed -E 's/.*window=([0-9.]+)-([0-9.]+).*/\1 \2/')
+python3 - "$out/gc-$label.log" "$label" $window <<'PY'
+import re, sys
+log, label, start, end = sys.argv[1], sys.argv[2], float(sys.argv[3]), float(sys.argv[4])
+pauses = []
+for line in open(log):
+    m = re.match(r'\[([0-9.]+)s\].*Pause.* ([0-9.]+)ms$', line.strip())
+    if m and start <= float(m.group(1)) <= end:
+        pauses.append(float(m.group(2)))
+pauses.sort()
+q = lambda f: pauses[min(len(pauses) - 1, int(f * len(pauses)))]
+print(f"{label}: pauses={len(pauses)} total={sum(pauses):.1f}ms p50={q(.5):.2f}ms "
+      f"p99={q(.99):.2f}ms max={pauses[-1]:.2f}ms window={end - start:.0f}s")
+PY
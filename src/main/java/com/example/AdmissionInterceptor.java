@@ -0,0 +1,234 @@
+package com.example;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Admits Fibonacci API requests according to their estimated cost
+ *
+ * Each request is charged against its client's token bucket and then
+ * against the global in-flight budget. A client out of tokens gets 429;
+ * a request that cannot get global budget within the queue timeout gets 503
+ * and has its tokens refunded. A request estimated to need longer than its
+ * deadline gets 503 up front, and no request may hold more than
+ * max-request-share of the global budget, so cheap requests still get in
+ * while an expensive one runs. Bulk requests are costed from their
+ * Content-Length, so one without it gets 411 and one over the body limit
+ * gets 413, both before the body is read.
+ *
+ * The client header is self-declared, so it is only trusted for clients
+ * with a configured weight or when a trusted proxy sends it; anyone else
+ * is identified by remote address. The bucket map is capped in size and
+ * evicts the least recently used client.
+ */
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String RESERVED_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".reserved";
+
+    private final AdmissionProperties properties;
+    private final CostEstimator costEstimator;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrencyBudget globalBudget;
+    private final Map<String, TokenBucket> buckets;
+    private final DistributionSummary admittedCost;
+
+    public AdmissionInterceptor(AdmissionProperties properties, CostEstimator costEstimator,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.costEstimator = costEstimator;
+        this.meterRegistry = meterRegistry;
+        this.globalBudget = new ConcurrencyBudget(properties.getGlobalBudget(),
+            (long) (properties.getGlobalBudget() * properties.getMaxRequestShare()));
+        this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > properties.getMaxClients();
+            }
+        };
+        this.admittedCost = DistributionSummary.builder("fibonacci.admission.cost")
+            .description("Estimated cost of admitted requests in calculation steps")
+            .register(meterRegistry);
+        Gauge.builder("fibonacci.admission.inflight", globalBudget, ConcurrencyBudget::getInFlight)
+            .description("Estimated cost of requests currently in flight")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+            Object handler) throws Exception {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+
+        if (isBulk(request)) {
+            long contentLength = request.getContentLengthLong();
+            if (contentLength < 0) {
+                reject("length_required");
+                response.sendError(HttpStatus.LENGTH_REQUIRED.value(),
+                    "Bulk requests must declare a Content-Length");
+                return false;
+            }
+            if (contentLength > properties.getMaxBulkBodyBytes()) {
+                reject("body_too_large");
+                response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                    "Request body exceeds " + properties.getMaxBulkBodyBytes() + " bytes");
+                return false;
+            }
+        }
+
+        long cost = estimateCost(request);
+        long remainingNanos = ComputationDeadline.current().getRemainingNanos();
+        if (remainingNanos > 0 && cost > remainingNanos / 1e9 * properties.getStepsPerSecond()) {
+            // Would only hold budget until its deadline aborts it; an expired
+            // request aborts at its first checkpoint and is left to the handler
+            reject("deadline");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Estimated cost of " + cost + " steps cannot complete within the request deadline");
+            return false;
+        }
+
+        String client = resolveClient(request);
+
+        TokenBucket bucket = bucketFor(client);
+        long waitNanos = bucket.tryConsume(cost, System.nanoTime());
+        if (waitNanos > 0) {
+            reject("client_budget");
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds(waitNanos));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Request cost exceeds the remaining budget for this client");
+            return false;
+        }
+
+        long timeoutNanos = Math.min(
+            TimeUnit.MILLISECONDS.toNanos(properties.getQueueTimeoutMs()), remainingNanos);
+        long reserved = globalBudget.acquire(cost, timeoutNanos);
+        if (reserved < 0) {
+            bucket.refund(cost);
+            reject("global_budget");
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Server is at capacity, try again later");
+            return false;
+        }
+
+        request.setAttribute(RESERVED_ATTRIBUTE, reserved);
+        admittedCost.record(cost);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+            Object handler, Exception ex) {
+        Object reserved = request.getAttribute(RESERVED_ATTRIBUTE);
+        if (reserved != null) {
+            request.removeAttribute(RESERVED_ATTRIBUTE);
+            globalBudget.release((Long) reserved);
+        }
+    }
+
+    /**
+     * Estimates the cost of a request from its endpoint and arguments
+     */
+    long estimateCost(HttpServletRequest request) {
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>)
+            request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pattern == null) {
+            return 1;
+        }
+        try {
+            switch (pattern) {
+                case "/api/fibonacci/{index}":
+                    return costEstimator.estimateFibonacci(Integer.parseInt(variables.get("index")));
+                case "/api/fibonacci/next/{index}":
+                    return costEstimator.estimateNext(Integer.parseInt(variables.get("index")));
+                case "/api/fibonacci/{index}/last-digits":
+                case "/api/fibonacci/{index}/leading-digits":
+                case "/api/fibonacci/{index}/digit-count":
+                    return costEstimator.estimateDigits(Long.parseLong(variables.get("index")));
+                case "/api/fibonacci/zeckendorf/encode":
+                    return costEstimator.estimateZeckendorf(request.getContentLengthLong(), true);
+                case "/api/fibonacci/zeckendorf/decode":
+                    return costEstimator.estimateZeckendorf(request.getContentLengthLong(), false);
+                case "/api/fibonacci/sequence":
+                    return costEstimator.estimateSequence(
+                        intParameter(request, "start", 0), intParameter(request, "count", 10));
+                default:
+                    return 1;
+            }
+        } catch (NumberFormatException | NullPointerException e) {
+            // Malformed arguments are rejected cheaply by the controller
+            return 1;
+        }
+    }
+
+    private static boolean isBulk(HttpServletRequest request) {
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return "/api/fibonacci/zeckendorf/encode".equals(pattern)
+            || "/api/fibonacci/zeckendorf/decode".equals(pattern);
+    }
+
+    private static int intParameter(HttpServletRequest request, String name, int defaultValue) {
+        String value = request.getParameter(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    /**
+     * Identifies the client, trusting the client header only where it cannot be forged at will
+     */
+    private String resolveClient(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        String client = request.getHeader(properties.getClientHeader());
+        if (client == null || client.isBlank()) {
+            return remoteAddr;
+        }
+        if (!properties.getTrustedProxies().isEmpty()) {
+            // Behind a proxy only the proxy may name clients
+            return properties.getTrustedProxies().contains(remoteAddr) ? client.trim() : remoteAddr;
+        }
+        client = client.trim();
+        return properties.getClientWeights().containsKey(client) ? client : remoteAddr;
+    }
+
+    private TokenBucket bucketFor(String client) {
+        synchronized (buckets) {
+            return buckets.computeIfAbsent(client, c -> {
+                double weight = properties.getClientWeights().getOrDefault(c, 1.0);
+                return new TokenBucket(
+                    (long) (properties.getBucketCapacity() * weight),
+                    properties.getRefillPerSecond() * weight,
+                    System.nanoTime());
+            });
+        }
+    }
+
+    private void reject(String reason) {
+        Counter.builder("fibonacci.admission.rejected")
+            .description("Requests shed by admission control")
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private static String retryAfterSeconds(long waitNanos) {
+        if (waitNanos == Long.MAX_VALUE) {
+            return "60";
+        }
+        return Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+    }
+}
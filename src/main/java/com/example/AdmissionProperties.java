@@ -0,0 +1,182 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for cost-based admission control
+ *
+ * Costs are measured in estimated calculation steps, the same unit
+ * counted by {@link ComputationDeadline} checkpoints.
+ */
+@Component
+@ConfigurationProperties(prefix = "fibonacci.admission")
+public class AdmissionProperties {
+
+    /**
+     * Whether admission control is applied at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Header identifying the client; honoured only for clients listed in the
+     * weights or when sent by a trusted proxy, otherwise the remote address is used
+     */
+    private String clientHeader = "X-Client-Id";
+
+    /**
+     * Remote addresses allowed to name any client through the client header;
+     * when set, the header is ignored from every other address
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    /**
+     * Steps a client with weight 1 can spend in a burst
+     */
+    private long bucketCapacity = 2_000_000_000L;
+
+    /**
+     * Steps per second returned to the bucket of a client with weight 1
+     */
+    private long refillPerSecond = 1_000_000_000L;
+
+    /**
+     * Estimated steps that may be in flight across all clients
+     */
+    private long globalBudget = 4_000_000_000L;
+
+    /**
+     * Largest share of the global budget a single request may hold, so that
+     * one expensive request cannot lock cheap ones out
+     */
+    private double maxRequestShare = 0.5;
+
+    /**
+     * Calculation steps the server completes per second, as measured on the
+     * recursive path; requests estimated to need longer than their deadline
+     * are rejected up front instead of running until they are aborted
+     */
+    private long stepsPerSecond = 300_000_000L;
+
+    /**
+     * How long a request may wait for global budget before it is shed
+     */
+    private long queueTimeoutMs = 1000;
+
+    /**
+     * Client buckets kept; the least recently used is evicted beyond this
+     */
+    private int maxClients = 10_000;
+
+    /**
+     * Largest body accepted by the bulk Zeckendorf endpoints, checked against
+     * Content-Length before the body is read
+     */
+    private long maxBulkBodyBytes = 24L * 1024 * 1024;
+
+    /**
+     * Per-client multipliers for bucket capacity and refill rate
+     */
+    private Map<String, Double> clientWeights = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    public void setClientHeader(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    public List<String> getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    public long getBucketCapacity() {
+        return bucketCapacity;
+    }
+
+    public void setBucketCapacity(long bucketCapacity) {
+        this.bucketCapacity = bucketCapacity;
+    }
+
+    public long getRefillPerSecond() {
+        return refillPerSecond;
+    }
+
+    public void setRefillPerSecond(long refillPerSecond) {
+        this.refillPerSecond = refillPerSecond;
+    }
+
+    public long getGlobalBudget() {
+        return globalBudget;
+    }
+
+    public void setGlobalBudget(long globalBudget) {
+        this.globalBudget = globalBudget;
+    }
+
+    public double getMaxRequestShare() {
+        return maxRequestShare;
+    }
+
+    public void setMaxRequestShare(double maxRequestShare) {
+        this.maxRequestShare = maxRequestShare;
+    }
+
+    public long getStepsPerSecond() {
+        return stepsPerSecond;
+    }
+
+    public void setStepsPerSecond(long stepsPerSecond) {
+        this.stepsPerSecond = stepsPerSecond;
+    }
+
+    public long getQueueTimeoutMs() {
+        return queueTimeoutMs;
+    }
+
+    public void setQueueTimeoutMs(long queueTimeoutMs) {
+        this.queueTimeoutMs = queueTimeoutMs;
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(int maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    public long getMaxBulkBodyBytes() {
+        return maxBulkBodyBytes;
+    }
+
+    public void setMaxBulkBodyBytes(long maxBulkBodyBytes) {
+        this.maxBulkBodyBytes = maxBulkBodyBytes;
+    }
+
+    public Map<String, Double> getClientWeights() {
+        return clientWeights;
+    }
+
+    public void setClientWeights(Map<String, Double> clientWeights) {
+        this.clientWeights = clientWeights;
+    }
+}
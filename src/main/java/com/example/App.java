@@ -6,6 +6,7 @@ import org.springframework.stereotype.Component;
 /**
  * Legacy App class maintained for backward compatibility
  * Now uses the Spring-managed FibonacciCalculator service
+ * New non-Spring callers should use {@link FibonacciEngine} instead
  */
 @Component
 public class App {
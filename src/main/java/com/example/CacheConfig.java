@@ -1,5 +1,8 @@
 package com.example;
 
+import java.util.List;
+
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
@@ -15,11 +18,22 @@ public class CacheConfig {
     
     /**
      * Configure the cache manager to use a simple in-memory cache
+     * Compressed results, whose keys come from client input, are capped in size
      * 
      * @return the cache manager
      */
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("fibonacci", "nextFibonacci");
+    public CacheManager cacheManager(CompressionProperties compressionProperties) {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager() {
+            @Override
+            protected Cache createConcurrentMapCache(String name) {
+                if ("compressedResults".equals(name)) {
+                    return new LruCache(name, compressionProperties.getHeapMaxEntries());
+                }
+                return super.createConcurrentMapCache(name);
+            }
+        };
+        cacheManager.setCacheNames(List.of("fibonacci", "nextFibonacci", "compressedResults"));
+        return cacheManager;
     }
 }
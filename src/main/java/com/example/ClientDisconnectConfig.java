@@ -0,0 +1,25 @@
+package com.example;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class installing client disconnect detection in embedded Tomcat
+ */
+@Configuration
+@ConditionalOnClass(name = "org.apache.catalina.startup.Tomcat")
+@ConditionalOnProperty(prefix = "fibonacci.deadline", name = "cancel-on-disconnect", matchIfMissing = true)
+public class ClientDisconnectConfig {
+
+    /**
+     * Add the disconnect probe valve to the application context
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> clientDisconnectCustomizer() {
+        return factory -> factory.addContextValves(new ClientDisconnectValve());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example;
+
+import java.io.IOException;
+import java.util.function.BooleanSupplier;
+
+import jakarta.servlet.ServletException;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.apache.coyote.ActionCode;
+
+/**
+ * Tomcat valve exposing a probe that reports whether the client has gone away
+ *
+ * The servlet API only notices a closed connection when the response is
+ * written, which for a long computation is too late. Once the request body
+ * has been read, a non-blocking read on the connection returns end of
+ * stream as soon as the client closes it; bytes of a pipelined request are
+ * not reported until this request completes, so they are not mistaken for
+ * a disconnect. The probe is stored as a request attribute and picked up
+ * by {@link DeadlineFilter}.
+ */
+class ClientDisconnectValve extends ValveBase {
+
+    /**
+     * Request attribute holding the {@link BooleanSupplier} probe
+     */
+    static final String PROBE_ATTRIBUTE = ClientDisconnectValve.class.getName() + ".probe";
+
+    ClientDisconnectValve() {
+        super(true);
+    }
+
+    @Override
+    public void invoke(Request request, Response response) throws IOException, ServletException {
+        if (request.getProtocol() != null && request.getProtocol().startsWith("HTTP/1")) {
+            request.setAttribute(PROBE_ATTRIBUTE, probe(request.getCoyoteRequest()));
+        }
+        getNext().invoke(request, response);
+    }
+
+    private static BooleanSupplier probe(org.apache.coyote.Request coyoteRequest) {
+        return () -> {
+            if (!bodyConsumed(coyoteRequest)) {
+                return false;
+            }
+            coyoteRequest.action(ActionCode.AVAILABLE, Boolean.TRUE);
+            return coyoteRequest.getAvailable() > 0;
+        };
+    }
+
+    /**
+     * Unread body bytes would look like a disconnect, so only probe once the body is gone
+     */
+    private static boolean bodyConsumed(org.apache.coyote.Request coyoteRequest) {
+        long contentLength = coyoteRequest.getContentLengthLong();
+        if (contentLength < 0) {
+            return coyoteRequest.getHeader("Transfer-Encoding") == null;
+        }
+        return coyoteRequest.getBytesRead() >= contentLength;
+    }
+}
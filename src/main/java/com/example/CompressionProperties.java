@@ -0,0 +1,108 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for precompressed result storage
+ */
+@Component
+@ConfigurationProperties(prefix = "fibonacci.compression")
+public class CompressionProperties {
+
+    /**
+     * Whether large results are stored compressed
+     */
+    private boolean enabled = true;
+
+    /**
+     * Encoding used for stored results, either "gzip" or "deflate"
+     */
+    private String encoding = "gzip";
+
+    /**
+     * Deflate compression level from 1 (fastest) to 9 (smallest)
+     */
+    private int level = 6;
+
+    /**
+     * Smallest response body, in bytes, that is stored compressed
+     */
+    private int thresholdBytes = 1024;
+
+    /**
+     * Endpoints whose responses are stored compressed
+     */
+    private List<String> paths = new ArrayList<>(List.of("/api/fibonacci/sequence"));
+
+    /**
+     * Query parameters that make up the storage key, with the value used when absent
+     */
+    private Map<String, String> keyParameters = new LinkedHashMap<>(Map.of("start", "0", "count", "10"));
+
+    /**
+     * Results kept in the on-heap compressedResults cache, least recently used first out
+     */
+    private int heapMaxEntries = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    public int getThresholdBytes() {
+        return thresholdBytes;
+    }
+
+    public void setThresholdBytes(int thresholdBytes) {
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public void setPaths(List<String> paths) {
+        this.paths = paths;
+    }
+
+    public Map<String, String> getKeyParameters() {
+        return keyParameters;
+    }
+
+    public void setKeyParameters(Map<String, String> keyParameters) {
+        this.keyParameters = keyParameters;
+    }
+
+    public int getHeapMaxEntries() {
+        return heapMaxEntries;
+    }
+
+    public void setHeapMaxEntries(int heapMaxEntries) {
+        this.heapMaxEntries = heapMaxEntries;
+    }
+}
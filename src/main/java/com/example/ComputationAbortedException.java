@@ -0,0 +1,35 @@
+package com.example;
+
+/**
+ * Thrown when a computation stops early because its deadline passed
+ * or it was cancelled
+ */
+public class ComputationAbortedException extends RuntimeException {
+
+    /**
+     * Why a computation was aborted
+     */
+    public enum Reason {
+        DEADLINE_EXCEEDED,
+        CANCELLED
+    }
+
+    private final Reason reason;
+    private final long completedSteps;
+
+    public ComputationAbortedException(Reason reason, long completedSteps) {
+        super(reason == Reason.CANCELLED
+                ? "Computation cancelled after " + completedSteps + " steps"
+                : "Deadline exceeded after " + completedSteps + " steps");
+        this.reason = reason;
+        this.completedSteps = completedSteps;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public long getCompletedSteps() {
+        return completedSteps;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Deadline and cancellation token for a single Fibonacci computation
+ *
+ * A deadline is bound to the current thread for the duration of a request
+ * and checked cooperatively by the calculation loops through
+ * {@link #checkpoint()}. Code running outside a request (for example the
+ * legacy {@link App} class) sees {@link #NONE}, which never expires.
+ *
+ * A computation is cancelled either explicitly through {@link #cancel()} or
+ * when the probe registered with {@link #cancelWhen(BooleanSupplier)} reports
+ * that nobody is waiting for the result any more.
+ */
+public final class ComputationDeadline {
+
+    /**
+     * Deadline that never expires and cannot be cancelled
+     */
+    public static final ComputationDeadline NONE = new ComputationDeadline(Long.MAX_VALUE, false);
+
+    private static final ThreadLocal<ComputationDeadline> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The clock is read on the first checkpoint and every 64th after it
+     */
+    private static final long CLOCK_STRIDE_MASK = 63;
+
+    /**
+     * The cancellation probe is consulted at most this often
+     */
+    private static final long PROBE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final long startNanos;
+    private final long deadlineNanos;
+    private final boolean bounded;
+    private volatile boolean cancelled;
+    private volatile ComputationAbortedException.Reason abortReason;
+    private long steps;
+    private BooleanSupplier cancellationProbe;
+    private long nextProbeNanos;
+
+    private ComputationDeadline(long deadlineNanos, boolean bounded) {
+        this.startNanos = System.nanoTime();
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Creates a deadline that expires after the given number of milliseconds
+     *
+     * @param timeoutMillis the time budget in milliseconds
+     * @return the new deadline
+     * @throws IllegalArgumentException if the timeout is negative
+     */
+    public static ComputationDeadline afterMillis(long timeoutMillis) {
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("Timeout cannot be negative");
+        }
+        return new ComputationDeadline(System.nanoTime() + timeoutMillis * 1_000_000L, true);
+    }
+
+    /**
+     * Returns the deadline bound to the current thread, or {@link #NONE}
+     *
+     * @return the current deadline
+     */
+    public static ComputationDeadline current() {
+        ComputationDeadline deadline = CURRENT.get();
+        return deadline != null ? deadline : NONE;
+    }
+
+    /**
+     * Binds the given deadline to the current thread
+     *
+     * @param deadline the deadline to bind
+     */
+    public static void bind(ComputationDeadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    /**
+     * Removes any deadline bound to the current thread
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Checks the current thread's deadline and counts one unit of work
+     * Every calculation loop should call this once per iteration
+     *
+     * @throws ComputationAbortedException if the deadline has passed or the computation was cancelled
+     */
+    public static void checkpoint() {
+        ComputationDeadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.check();
+        }
+    }
+
+    /**
+     * Checks this deadline and counts one unit of work
+     * Must only be called by the thread that owns the computation
+     *
+     * @throws ComputationAbortedException if the deadline has passed or the computation was cancelled
+     */
+    public void check() {
+        if (this == NONE) {
+            return;
+        }
+        if (cancelled) {
+            abort(ComputationAbortedException.Reason.CANCELLED);
+        }
+        if ((steps & CLOCK_STRIDE_MASK) == 0) {
+            checkClock();
+        }
+        steps++;
+    }
+
+    /**
+     * Checks this deadline without counting work or consulting the cancellation probe
+     * Unlike {@link #check()} this is safe to call from any thread, for
+     * example the workers of a parallel stream; it reads the clock on every call
+     *
+     * @throws ComputationAbortedException if the deadline has passed or the computation was cancelled
+     */
+    public void checkShared() {
+        if (this == NONE) {
+            return;
+        }
+        if (cancelled) {
+            abort(ComputationAbortedException.Reason.CANCELLED);
+        }
+        if (bounded && System.nanoTime() - deadlineNanos >= 0) {
+            abort(ComputationAbortedException.Reason.DEADLINE_EXCEEDED);
+        }
+    }
+
+    private void checkClock() {
+        if (!bounded && cancellationProbe == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (bounded && now - deadlineNanos >= 0) {
+            abort(ComputationAbortedException.Reason.DEADLINE_EXCEEDED);
+        }
+        if (cancellationProbe != null && now - nextProbeNanos >= 0) {
+            nextProbeNanos = now + PROBE_INTERVAL_NANOS;
+            if (cancellationProbe.getAsBoolean()) {
+                cancel();
+                abort(ComputationAbortedException.Reason.CANCELLED);
+            }
+        }
+    }
+
+    private void abort(ComputationAbortedException.Reason reason) {
+        abortReason = reason;
+        throw new ComputationAbortedException(reason, steps);
+    }
+
+    /**
+     * Requests cancellation; the computation stops at its next checkpoint
+     */
+    public void cancel() {
+        if (this != NONE) {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Registers a probe that cancels the computation once it returns true
+     * The probe is called from the computing thread, at most every 50ms
+     *
+     * @param probe returns true when the result is no longer wanted
+     */
+    public void cancelWhen(BooleanSupplier probe) {
+        if (this != NONE) {
+            this.cancellationProbe = probe;
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return the reason the computation was aborted, or null if it was not
+     */
+    public ComputationAbortedException.Reason getAbortReason() {
+        return abortReason;
+    }
+
+    /**
+     * @return the number of checkpoints completed so far
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return the nanoseconds left before the deadline, or Long.MAX_VALUE if unbounded
+     */
+    public long getRemainingNanos() {
+        return bounded ? Math.max(0, deadlineNanos - System.nanoTime()) : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return the nanoseconds elapsed since this deadline was created
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Global limit on the estimated cost of requests in flight
+ */
+class ConcurrencyBudget {
+
+    private final long capacity;
+    private final long maxCharge;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = lock.newCondition();
+    private long inFlight;
+
+    /**
+     * @param capacity the total estimated cost allowed in flight
+     * @param maxCharge the most a single request is charged, at most the capacity
+     */
+    ConcurrencyBudget(long capacity, long maxCharge) {
+        this.capacity = Math.max(1, capacity);
+        this.maxCharge = Math.max(1, Math.min(maxCharge, this.capacity));
+    }
+
+    /**
+     * Reserves budget for a request, waiting up to the given time for it to free up
+     * A cost above the per-request limit is charged as that limit, leaving
+     * the rest of the budget to other requests
+     *
+     * @param cost the estimated cost of the request
+     * @param timeoutNanos the longest time to wait
+     * @return the amount reserved, to be passed to {@link #release(long)}, or -1 if none was
+     */
+    long acquire(long cost, long timeoutNanos) throws InterruptedException {
+        long charge = Math.min(cost, maxCharge);
+        long remaining = timeoutNanos;
+        lock.lock();
+        try {
+            while (capacity - inFlight < charge) {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            inFlight += charge;
+            return charge;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns budget reserved by {@link #acquire(long, long)}
+     */
+    void release(long charge) {
+        lock.lock();
+        try {
+            inFlight -= charge;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getCapacity() {
+        return capacity;
+    }
+}
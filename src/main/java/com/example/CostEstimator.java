@@ -0,0 +1,120 @@
+package com.example;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estimates how many calculation steps a request will take
+ *
+ * The estimates mirror {@link FibonacciCalculator}: indices up to 50 are
+ * computed by plain recursion, larger ones iteratively until the result
+ * overflows a long. Cached results cost a single step.
+ */
+@Component
+public class CostEstimator {
+
+    /**
+     * Iterations after which the iterative calculation overflows a long
+     */
+    private static final int ITERATIVE_LIMIT = 93;
+
+    /**
+     * Upper bound on the terms of the exponential series used for leading digits
+     */
+    private static final int DIGIT_SERIES_STEPS = 100;
+
+    private static final double SQRT_5 = Math.sqrt(5);
+    private static final double PHI = (1 + SQRT_5) / 2;
+
+    private final CacheManager cacheManager;
+
+    public CostEstimator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Estimates the cost of computing F(index)
+     *
+     * @param index the position in the Fibonacci sequence
+     * @return the estimated number of steps, at least 1
+     */
+    public long estimateFibonacci(int index) {
+        if (index <= 1 || isCached("fibonacci", index)) {
+            return 1;
+        }
+        if (index > 50) {
+            return Math.min(index, ITERATIVE_LIMIT);
+        }
+        // The recursion makes 2 * F(n + 1) - 1 calls
+        return Math.round(2 * Math.pow(PHI, index + 1) / SQRT_5) - 1;
+    }
+
+    /**
+     * Estimates the cost of computing the number after F(index)
+     *
+     * @param index the position in the Fibonacci sequence
+     * @return the estimated number of steps, at least 1
+     */
+    public long estimateNext(int index) {
+        if (index < 0 || isCached("nextFibonacci", index)) {
+            return 1;
+        }
+        return estimateFibonacci(index + 1);
+    }
+
+    /**
+     * Estimates the cost of computing count numbers starting at F(start)
+     *
+     * @param start the first position in the sequence
+     * @param count the number of Fibonacci numbers
+     * @return the estimated number of steps, at least 1
+     */
+    public long estimateSequence(int start, int count) {
+        if (start < 0 || count < 1 || count > 100) {
+            return 1;
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += estimateFibonacci(start + i);
+            if (total < 0) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Estimates the cost of a leading digit, trailing digit or digit count query
+     * These take one doubling step per bit of the index plus a bounded series evaluation
+     *
+     * @param index the position in the Fibonacci sequence
+     * @return the estimated number of steps, at least 1
+     */
+    public long estimateDigits(long index) {
+        if (index < 0) {
+            return 1;
+        }
+        return 64 - Long.numberOfLeadingZeros(index) + DIGIT_SERIES_STEPS;
+    }
+
+    /**
+     * Estimates the cost of a Zeckendorf encode or decode request from its body size
+     * Both take one step per value; a JSON value takes at least 2 bytes and a codeword at least 2 bits
+     *
+     * @param contentLength the request body size in bytes, or -1 if unknown
+     * @param encode whether the body is a JSON array to encode rather than a bit stream to decode
+     * @return the estimated number of steps, at least 1
+     */
+    public long estimateZeckendorf(long contentLength, boolean encode) {
+        if (contentLength <= 0) {
+            return 1;
+        }
+        return encode ? Math.max(1, contentLength / 2) : contentLength * 4;
+    }
+
+    private boolean isCached(String cacheName, int index) {
+        Cache cache = cacheManager.getCache(cacheName);
+        return cache != null && cache.get(index) != null;
+    }
+}
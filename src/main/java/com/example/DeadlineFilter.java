@@ -0,0 +1,120 @@
+package com.example;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Binds a {@link ComputationDeadline} to each Fibonacci API request
+ *
+ * The time budget is the endpoint default, optionally tightened by the
+ * client through the deadline header. When the container provides a
+ * disconnect probe (see {@link ClientDisconnectValve}) the computation is
+ * cancelled once the client goes away. Aborted computations are recorded
+ * as metrics once the request completes.
+ */
+@Component
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private final DeadlineProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public DeadlineFilter(DeadlineProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/fibonacci");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        long timeoutMs = resolveTimeout(request);
+        if (timeoutMs < 0) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                "Invalid " + properties.getHeader() + " header");
+            return;
+        }
+
+        ComputationDeadline deadline = ComputationDeadline.afterMillis(timeoutMs);
+        if (properties.isCancelOnDisconnect()
+                && request.getAttribute(ClientDisconnectValve.PROBE_ATTRIBUTE) instanceof BooleanSupplier probe) {
+            deadline.cancelWhen(probe);
+        }
+        ComputationDeadline.bind(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ComputationDeadline.clear();
+            recordAbort(deadline);
+        }
+    }
+
+    /**
+     * Resolves the time budget for a request; a client can only shorten the endpoint default
+     *
+     * @return the timeout in milliseconds, or -1 if the header is malformed
+     */
+    long resolveTimeout(HttpServletRequest request) {
+        long timeoutMs = endpointTimeout(request.getRequestURI());
+        String header = request.getHeader(properties.getHeader());
+        if (header == null || header.isBlank()) {
+            return timeoutMs;
+        }
+        try {
+            long requested = Long.parseLong(header.trim());
+            return requested < 0 ? -1 : Math.min(requested, timeoutMs);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private long endpointTimeout(String path) {
+        for (Map.Entry<String, Long> entry : properties.getEndpoints().entrySet()) {
+            if (pathMatcher.match(entry.getKey(), path)) {
+                return entry.getValue();
+            }
+        }
+        return properties.getDefaultTimeoutMs();
+    }
+
+    private void recordAbort(ComputationDeadline deadline) {
+        ComputationAbortedException.Reason reason = deadline.getAbortReason();
+        if (reason == null) {
+            return;
+        }
+        String tag = reason.name().toLowerCase();
+        Counter.builder("fibonacci.computations.aborted")
+            .description("Computations abandoned before completion")
+            .tag("reason", tag)
+            .register(meterRegistry)
+            .increment();
+        DistributionSummary.builder("fibonacci.computations.abandoned.steps")
+            .description("Loop iterations completed by computations that were later abandoned")
+            .tag("reason", tag)
+            .register(meterRegistry)
+            .record(deadline.getSteps());
+        Timer.builder("fibonacci.computations.abandoned.time")
+            .description("Time spent on computations that were later abandoned")
+            .tag("reason", tag)
+            .register(meterRegistry)
+            .record(deadline.getElapsedNanos(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for request deadlines
+ *
+ * Endpoint timeouts are keyed by Ant-style path pattern; the first matching
+ * pattern wins, otherwise the default timeout applies.
+ */
+@Component
+@ConfigurationProperties(prefix = "fibonacci.deadline")
+public class DeadlineProperties {
+
+    /**
+     * Header carrying the client's time budget in milliseconds
+     */
+    private String header = "X-Request-Timeout-Ms";
+
+    /**
+     * Timeout applied when no endpoint pattern matches
+     */
+    private long defaultTimeoutMs = 5000;
+
+    /**
+     * Per-endpoint timeouts in milliseconds
+     */
+    private Map<String, Long> endpoints = new LinkedHashMap<>();
+
+    /**
+     * Cancel computations whose client has closed the connection
+     */
+    private boolean cancelOnDisconnect = true;
+
+    public String getHeader() {
+        return header;
+    }
+
+    public void setHeader(String header) {
+        this.header = header;
+    }
+
+    public long getDefaultTimeoutMs() {
+        return defaultTimeoutMs;
+    }
+
+    public void setDefaultTimeoutMs(long defaultTimeoutMs) {
+        this.defaultTimeoutMs = defaultTimeoutMs;
+    }
+
+    public Map<String, Long> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Long> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public boolean isCancelOnDisconnect() {
+        return cancelOnDisconnect;
+    }
+
+    public void setCancelOnDisconnect(boolean cancelOnDisconnect) {
+        this.cancelOnDisconnect = cancelOnDisconnect;
+    }
+}
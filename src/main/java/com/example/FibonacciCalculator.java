@@ -19,6 +19,7 @@ public class FibonacciCalculator {
      * @param n the position in the Fibonacci sequence (0-based)
      * @return the Fibonacci number at the given position
      * @throws IllegalArgumentException if index is negative
+     * @throws ComputationAbortedException if the request deadline passes first
      */
     @Cacheable("fibonacci")
     public long calculateFibonacci(@Min(0) int n) {
@@ -26,18 +27,54 @@ public class FibonacciCalculator {
             throw new IllegalArgumentException("Index cannot be negative");
         }
         
-        if (n <= 1) {
-            return n;
+        ComputationDeadline deadline = ComputationDeadline.current();
+        FibonacciComputationEvent event = new FibonacciComputationEvent();
+        event.begin();
+        long startSteps = deadline.getSteps();
+        String outcome = "error";
+        long result = -1;
+        
+        try {
+            // For larger indices, use iterative approach to avoid stack overflow
+            if (n > 50) {
+                result = calculateFibonacciIterative(n, deadline);
+            } else {
+                result = calculateFibonacciRecursive(n, deadline);
+            }
+            outcome = "ok";
+            return result;
+        } catch (ComputationAbortedException e) {
+            outcome = "aborted";
+            throw e;
+        } catch (ArithmeticException e) {
+            outcome = "overflow";
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.index = n;
+                event.engine = n > 50 ? "iterative" : "recursive";
+                event.steps = deadline.getSteps() - startSteps;
+                event.outcome = outcome;
+                event.bytesProduced = result >= 0 ? Long.toString(result).length() : 0;
+                event.commit();
+            }
         }
+    }
+    
+    /**
+     * Recursive implementation for calculating Fibonacci numbers
+     * The deadline is passed down rather than looked up on every call
+     */
+    private long calculateFibonacciRecursive(int n, ComputationDeadline deadline) {
+        deadline.check();
         
-        // For larger indices, use iterative approach to avoid stack overflow
-        if (n > 50) {
-            return calculateFibonacciIterative(n);
+        if (n <= 1) {
+            return n;
         }
         
-        // Calculate recursively
-        // Since we're using Spring's caching, we don't need our own cache map
-        long result = calculateFibonacci(n - 1) + calculateFibonacci(n - 2);
+        long result = calculateFibonacciRecursive(n - 1, deadline)
+            + calculateFibonacciRecursive(n - 2, deadline);
         
         // Check for overflow
         if (result < 0) {
@@ -51,7 +88,7 @@ public class FibonacciCalculator {
      * Iterative implementation for calculating Fibonacci numbers
      * Used for larger indices to avoid stack overflow
      */
-    private long calculateFibonacciIterative(int n) {
+    private long calculateFibonacciIterative(int n, ComputationDeadline deadline) {
         if (n <= 1) {
             return n;
         }
@@ -60,6 +97,7 @@ public class FibonacciCalculator {
         long current = 1;
         
         for (int i = 2; i <= n; i++) {
+            deadline.check();
             long next = prev + current;
             
             // Check for overflow
@@ -90,4 +128,81 @@ public class FibonacciCalculator {
         // Simply return the Fibonacci number at index + 1
         return calculateFibonacci(index + 1);
     }
+    
+    /**
+     * Returns the last k digits of the Fibonacci number at the given index
+     * Uses fast doubling modulo 10^k, so the full number is never computed
+     * 
+     * @param n the position in the Fibonacci sequence (0-based)
+     * @param k how many trailing digits to return, from 1 to 18
+     * @return the last k digits, zero-padded, or all digits if F(n) has fewer than k
+     * @throws IllegalArgumentException if index is negative or k is out of range
+     */
+    public String getLastDigits(@Min(0) long n, int k) {
+        checkDigitQuery(n, k);
+        return FibonacciDigits.lastDigits(n, k, ComputationDeadline.current());
+    }
+    
+    /**
+     * Returns the first k digits of the Fibonacci number at the given index
+     * Uses Binet's formula in high-precision logarithms
+     * 
+     * @param n the position in the Fibonacci sequence (0-based)
+     * @param k how many leading digits to return, from 1 to 18
+     * @return the first k digits, or all digits if F(n) has fewer than k
+     * @throws IllegalArgumentException if index is negative or k is out of range
+     */
+    public String getLeadingDigits(@Min(0) long n, int k) {
+        checkDigitQuery(n, k);
+        return FibonacciDigits.leadingDigits(n, k, ComputationDeadline.current());
+    }
+    
+    /**
+     * Returns the number of decimal digits in the Fibonacci number at the given index
+     * 
+     * @param n the position in the Fibonacci sequence (0-based)
+     * @return the number of digits of F(n)
+     * @throws IllegalArgumentException if index is negative
+     */
+    public long getDigitCount(@Min(0) long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Index cannot be negative");
+        }
+        return FibonacciDigits.digitCount(n);
+    }
+    
+    /**
+     * Encodes values as a packed stream of Fibonacci codewords
+     * 
+     * @param values the values to encode, each from 0 to Long.MAX_VALUE - 1
+     * @return the packed Fibonacci-coded bit stream
+     * @throws IllegalArgumentException if a value is out of range
+     * @see ZeckendorfCodec
+     */
+    public byte[] encodeZeckendorf(long[] values) {
+        return ZeckendorfCodec.encode(values);
+    }
+    
+    /**
+     * Decodes a packed stream of Fibonacci codewords
+     * 
+     * @param stream the packed Fibonacci-coded bit stream
+     * @param maxValues the most values to accept
+     * @return the decoded values
+     * @throws IllegalArgumentException if the stream is malformed or too long
+     * @see ZeckendorfCodec
+     */
+    public long[] decodeZeckendorf(byte[] stream, @Min(0) int maxValues) {
+        return ZeckendorfCodec.decode(stream, maxValues);
+    }
+    
+    private static void checkDigitQuery(long n, int k) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Index cannot be negative");
+        }
+        if (k < 1 || k > FibonacciDigits.MAX_DIGITS) {
+            throw new IllegalArgumentException(
+                "Digit count must be between 1 and " + FibonacciDigits.MAX_DIGITS);
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package com.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a single calculation inside {@link FibonacciCalculator}
+ * Cache hits never reach the calculator; they appear on {@link FibonacciRequestEvent}
+ */
+@Name("com.example.FibonacciComputation")
+@Label("Fibonacci Computation")
+@Category("Fibonacci")
+@Description("A Fibonacci number computed by the calculator")
+@StackTrace(false)
+public class FibonacciComputationEvent extends Event {
+
+    @Label("Index")
+    int index;
+
+    @Label("Engine")
+    @Description("Algorithm used for the calculation")
+    String engine;
+
+    @Label("Steps")
+    @Description("Calculation steps counted by the request deadline")
+    long steps;
+
+    @Label("Bytes Produced")
+    @Description("Size of the decimal representation of the result")
+    @DataAmount
+    long bytesProduced;
+
+    @Label("Outcome")
+    String outcome;
+}
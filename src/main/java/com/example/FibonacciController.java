@@ -1,9 +1,13 @@
 package com.example;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.constraints.Min;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
 import org.springframework.validation.annotation.Validated;
 
 /**
@@ -14,6 +18,11 @@ import org.springframework.validation.annotation.Validated;
 @Validated
 public class FibonacciController {
     
+    /**
+     * Most values accepted by a single Zeckendorf encode or decode request
+     */
+    static final int MAX_BULK_VALUES = 1_000_000;
+    
     private final FibonacciCalculator fibonacciCalculator;
     
     @Autowired
@@ -30,7 +39,10 @@ public class FibonacciController {
     @GetMapping("/{index}")
     public ResponseEntity<FibonacciResponse> getFibonacciNumber(
             @PathVariable int index) {
-        
+        return traced("fibonacci", true, index, 1, 0, () -> fibonacciNumber(index));
+    }
+    
+    private ResponseEntity<FibonacciResponse> fibonacciNumber(int index) {
         if (index < 0) {
             return ResponseEntity.badRequest().body(
                 new FibonacciResponse(index, -1, "Index cannot be negative"));
@@ -39,6 +51,9 @@ public class FibonacciController {
         try {
             long result = fibonacciCalculator.calculateFibonacci(index);
             return ResponseEntity.ok(new FibonacciResponse(index, result));
+        } catch (ComputationAbortedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                new FibonacciResponse(index, -1, "Aborted: " + e.getMessage()));
         } catch (ArithmeticException e) {
             return ResponseEntity.badRequest().body(
                 new FibonacciResponse(index, -1, "Overflow: " + e.getMessage()));
@@ -57,7 +72,10 @@ public class FibonacciController {
     @GetMapping("/next/{index}")
     public ResponseEntity<FibonacciResponse> getNextFibonacciNumber(
             @PathVariable int index) {
-        
+        return traced("next", true, index, 1, 0, () -> nextFibonacciNumber(index));
+    }
+    
+    private ResponseEntity<FibonacciResponse> nextFibonacciNumber(int index) {
         if (index < 0) {
             return ResponseEntity.badRequest().body(
                 new FibonacciResponse(index, -1, "Index cannot be negative"));
@@ -67,6 +85,9 @@ public class FibonacciController {
             long result = fibonacciCalculator.getNextFibonacci(index);
             return ResponseEntity.ok(
                 new FibonacciResponse(index + 1, result, "Next after F(" + index + ")"));
+        } catch (ComputationAbortedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                new FibonacciResponse(index + 1, -1, "Aborted: " + e.getMessage()));
         } catch (ArithmeticException e) {
             return ResponseEntity.badRequest().body(
                 new FibonacciResponse(index + 1, -1, "Overflow: " + e.getMessage()));
@@ -87,7 +108,11 @@ public class FibonacciController {
     public ResponseEntity<FibonacciSequenceResponse> getFibonacciSequence(
             @RequestParam(name = "start", defaultValue = "0") int start,
             @RequestParam(name = "count", defaultValue = "10") int count) {
-        
+        // The sequence loop passes one deadline checkpoint per element
+        return traced("sequence", true, start, count, count, () -> fibonacciSequence(start, count));
+    }
+    
+    private ResponseEntity<FibonacciSequenceResponse> fibonacciSequence(int start, int count) {
         if (start < 0) {
             return ResponseEntity.badRequest().body(
                 new FibonacciSequenceResponse("Start index cannot be negative"));
@@ -106,9 +131,13 @@ public class FibonacciController {
         try {
             long[] sequence = new long[count];
             for (int i = 0; i < count; i++) {
+                ComputationDeadline.checkpoint();
                 sequence[i] = fibonacciCalculator.calculateFibonacci(start + i);
             }
             return ResponseEntity.ok(new FibonacciSequenceResponse(start, count, sequence));
+        } catch (ComputationAbortedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                new FibonacciSequenceResponse("Aborted: " + e.getMessage()));
         } catch (ArithmeticException e) {
             return ResponseEntity.badRequest().body(
                 new FibonacciSequenceResponse("Overflow: " + e.getMessage()));
@@ -118,6 +147,170 @@ public class FibonacciController {
         }
     }
     
+    /**
+     * Get the last k digits of the Fibonacci number at the specified index
+     * 
+     * @param index the position in the Fibonacci sequence (0-based), up to Long.MAX_VALUE
+     * @param k the number of trailing digits, from 1 to 18
+     * @return the trailing digits and the total digit count
+     */
+    @GetMapping("/{index}/last-digits")
+    public ResponseEntity<FibonacciDigitsResponse> getLastDigits(
+            @PathVariable long index,
+            @RequestParam(name = "k", defaultValue = "10") int k) {
+        return traced("last-digits", false, index, 1, 0,
+            () -> digits(index, k, () -> fibonacciCalculator.getLastDigits(index, k)));
+    }
+    
+    /**
+     * Get the first k digits of the Fibonacci number at the specified index
+     * 
+     * @param index the position in the Fibonacci sequence (0-based), up to Long.MAX_VALUE
+     * @param k the number of leading digits, from 1 to 18
+     * @return the leading digits and the total digit count
+     */
+    @GetMapping("/{index}/leading-digits")
+    public ResponseEntity<FibonacciDigitsResponse> getLeadingDigits(
+            @PathVariable long index,
+            @RequestParam(name = "k", defaultValue = "10") int k) {
+        return traced("leading-digits", false, index, 1, 0,
+            () -> digits(index, k, () -> fibonacciCalculator.getLeadingDigits(index, k)));
+    }
+    
+    /**
+     * Get the number of decimal digits in the Fibonacci number at the specified index
+     * 
+     * @param index the position in the Fibonacci sequence (0-based), up to Long.MAX_VALUE
+     * @return the digit count
+     */
+    @GetMapping("/{index}/digit-count")
+    public ResponseEntity<FibonacciDigitsResponse> getDigitCount(
+            @PathVariable long index) {
+        return traced("digit-count", false, index, 1, 0, () -> digits(index, 0, null));
+    }
+    
+    private ResponseEntity<FibonacciDigitsResponse> digits(long index, int k, Supplier<String> query) {
+        if (index < 0) {
+            return ResponseEntity.badRequest().body(
+                new FibonacciDigitsResponse(index, "Index cannot be negative"));
+        }
+        
+        if (query != null && (k < 1 || k > FibonacciDigits.MAX_DIGITS)) {
+            return ResponseEntity.badRequest().body(
+                new FibonacciDigitsResponse(index,
+                    "k must be between 1 and " + FibonacciDigits.MAX_DIGITS));
+        }
+        
+        try {
+            String digits = query != null ? query.get() : null;
+            long digitCount = fibonacciCalculator.getDigitCount(index);
+            return ResponseEntity.ok(new FibonacciDigitsResponse(index, digits, digitCount));
+        } catch (ComputationAbortedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                new FibonacciDigitsResponse(index, "Aborted: " + e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                new FibonacciDigitsResponse(index, "Error: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Encode values as a packed stream of Fibonacci codewords
+     * 
+     * @param values the values to encode, each from 0 to Long.MAX_VALUE - 1
+     * @return the packed bit stream as application/octet-stream
+     */
+    @PostMapping(value = "/zeckendorf/encode", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> encodeZeckendorf(@RequestBody long[] values) {
+        return traced("zeckendorf-encode", false, 0, values.length, 0, () -> {
+            if (values.length > MAX_BULK_VALUES) {
+                return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(
+                    ("Cannot encode more than " + MAX_BULK_VALUES + " values").getBytes(StandardCharsets.UTF_8));
+            }
+            try {
+                byte[] stream = fibonacciCalculator.encodeZeckendorf(values);
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).body(stream);
+            } catch (ComputationAbortedException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.TEXT_PLAIN)
+                    .body(("Aborted: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN)
+                    .body(("Error: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+    
+    /**
+     * Decode a packed stream of Fibonacci codewords
+     * 
+     * @param stream the packed bit stream
+     * @return the decoded values
+     */
+    @PostMapping(value = "/zeckendorf/decode", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ZeckendorfResponse> decodeZeckendorf(@RequestBody byte[] stream) {
+        return traced("zeckendorf-decode", false, 0, 0, 0, () -> {
+            try {
+                long[] values = fibonacciCalculator.decodeZeckendorf(stream, MAX_BULK_VALUES);
+                return ResponseEntity.ok(new ZeckendorfResponse(values));
+            } catch (ComputationAbortedException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                    new ZeckendorfResponse("Aborted: " + e.getMessage()));
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body(
+                    new ZeckendorfResponse("Error: " + e.getMessage()));
+            }
+        });
+    }
+    
+    /**
+     * Runs a request handler and records it as a {@link FibonacciRequestEvent}
+     * 
+     * @param cached whether the endpoint is backed by a cache; only then can a request be a cache hit
+     * @param loopSteps deadline checkpoints passed by the controller itself on success
+     */
+    private <T> ResponseEntity<T> traced(String endpoint, boolean cached, long index, int count, int loopSteps,
+            Supplier<ResponseEntity<T>> handler) {
+        FibonacciRequestEvent event = new FibonacciRequestEvent();
+        event.begin();
+        ComputationDeadline deadline = ComputationDeadline.current();
+        long startSteps = deadline.getSteps();
+        ResponseEntity<T> response = handler.get();
+        event.end();
+        if (event.shouldCommit()) {
+            boolean ok = response.getStatusCode().is2xxSuccessful();
+            long steps = deadline.getSteps() - startSteps - (ok ? loopSteps : 0);
+            event.endpoint = endpoint;
+            event.index = index;
+            event.count = count;
+            event.steps = Math.max(0, steps);
+            event.cacheHit = cached && ok && steps <= 0;
+            event.bytesProduced = bytesProduced(response.getBody());
+            event.status = response.getStatusCode().value();
+            event.commit();
+        }
+        return response;
+    }
+    
+    private static long bytesProduced(Object body) {
+        if (body instanceof FibonacciResponse response) {
+            return response.getValue() >= 0 ? Long.toString(response.getValue()).length() : 0;
+        }
+        if (body instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (body instanceof FibonacciDigitsResponse response) {
+            return response.getDigits() != null ? response.getDigits().length() : 0;
+        }
+        if (body instanceof FibonacciSequenceResponse response) {
+            long bytes = 0;
+            for (long value : response.getSequence()) {
+                bytes += Long.toString(value).length();
+            }
+            return bytes;
+        }
+        return 0;
+    }
+    
     /**
      * Response class for Fibonacci number requests
      */
@@ -224,4 +417,113 @@ public class FibonacciController {
             this.error = error;
         }
     }
+    
+    /**
+     * Response class for Fibonacci digit queries
+     */
+    public static class FibonacciDigitsResponse {
+        private long index;
+        private String digits;
+        private long digitCount;
+        private String message;
+        
+        // Default constructor for JSON deserialization
+        public FibonacciDigitsResponse() {
+        }
+        
+        public FibonacciDigitsResponse(long index, String digits, long digitCount) {
+            this.index = index;
+            this.digits = digits;
+            this.digitCount = digitCount;
+            this.message = "F(" + index + ")";
+        }
+        
+        public FibonacciDigitsResponse(long index, String message) {
+            this.index = index;
+            this.digits = null;
+            this.digitCount = -1;
+            this.message = message;
+        }
+        
+        public long getIndex() {
+            return index;
+        }
+        
+        public void setIndex(long index) {
+            this.index = index;
+        }
+        
+        public String getDigits() {
+            return digits;
+        }
+        
+        public void setDigits(String digits) {
+            this.digits = digits;
+        }
+        
+        public long getDigitCount() {
+            return digitCount;
+        }
+        
+        public void setDigitCount(long digitCount) {
+            this.digitCount = digitCount;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+        
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+    
+    /**
+     * Response class for Zeckendorf decode requests
+     */
+    public static class ZeckendorfResponse {
+        private int count;
+        private long[] values;
+        private String error;
+        
+        // Default constructor for JSON deserialization
+        public ZeckendorfResponse() {
+        }
+        
+        public ZeckendorfResponse(long[] values) {
+            this.count = values.length;
+            this.values = values;
+            this.error = null;
+        }
+        
+        public ZeckendorfResponse(String error) {
+            this.count = -1;
+            this.values = new long[0];
+            this.error = error;
+        }
+        
+        public int getCount() {
+            return count;
+        }
+        
+        public void setCount(int count) {
+            this.count = count;
+        }
+        
+        public long[] getValues() {
+            return values;
+        }
+        
+        public void setValues(long[] values) {
+            this.values = values;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
 }
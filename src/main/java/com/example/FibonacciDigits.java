@@ -0,0 +1,156 @@
+package com.example;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Digit queries on Fibonacci numbers too large to compute in full
+ *
+ * Trailing digits come from fast doubling modulo 10^k. Leading digits and
+ * digit counts come from Binet's formula in logarithmic form,
+ * log10 F(n) = n * log10(phi) - log10(sqrt 5), evaluated in BigDecimal.
+ * Indices up to {@link FibonacciEngine#MAX_INDEX} are answered exactly.
+ */
+final class FibonacciDigits {
+
+    /**
+     * Largest number of leading or trailing digits that can be requested
+     */
+    static final int MAX_DIGITS = 18;
+
+    /**
+     * Enough precision for n * log10(phi) to keep 40 correct fractional digits for any long n
+     */
+    private static final MathContext PRECISION = new MathContext(80, RoundingMode.HALF_EVEN);
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+    private static final BigDecimal LN_10 = ln(BigDecimal.TEN);
+    private static final BigDecimal LOG10_PHI = ln(BigDecimal.ONE.add(BigDecimal.valueOf(5).sqrt(PRECISION))
+        .divide(TWO, PRECISION)).divide(LN_10, PRECISION);
+    private static final BigDecimal LOG10_SQRT_5 = ln(BigDecimal.valueOf(5)).divide(LN_10.multiply(TWO), PRECISION);
+
+    /**
+     * Largest modulus whose residues can be multiplied without overflowing a long
+     */
+    private static final long MAX_DIRECT_MODULUS = 3_037_000_499L;
+
+    private FibonacciDigits() {
+    }
+
+    /**
+     * Returns the last k digits of F(n), zero-padded when F(n) has at least k digits
+     */
+    static String lastDigits(long n, int k, ComputationDeadline deadline) {
+        if (n <= FibonacciEngine.MAX_INDEX) {
+            String exact = Long.toString(FibonacciEngine.fibonacci(n));
+            return exact.length() <= k ? exact : exact.substring(exact.length() - k);
+        }
+        long residue = fibonacciMod(n, BigInteger.TEN.pow(k).longValueExact(), deadline);
+        String digits = Long.toString(residue);
+        return "0".repeat(k - digits.length()) + digits;
+    }
+
+    /**
+     * Returns the first k digits of F(n), or all of them when F(n) has fewer than k
+     */
+    static String leadingDigits(long n, int k, ComputationDeadline deadline) {
+        if (n <= FibonacciEngine.MAX_INDEX) {
+            String exact = Long.toString(FibonacciEngine.fibonacci(n));
+            return exact.length() <= k ? exact : exact.substring(0, k);
+        }
+        BigDecimal log = log10Fibonacci(n);
+        BigDecimal fraction = log.subtract(new BigDecimal(log.toBigInteger()));
+        // F(n) = 10^(integer part) * 10^fraction, so the first k digits are floor(10^(k - 1 + fraction))
+        BigDecimal mantissa = exp(fraction.multiply(LN_10, PRECISION), deadline);
+        BigInteger leading = mantissa.scaleByPowerOfTen(k - 1).toBigInteger();
+        BigInteger limit = BigInteger.TEN.pow(k);
+        if (leading.compareTo(limit) >= 0) {
+            // Rounding pushed a run of nines over a power of ten
+            leading = limit.subtract(BigInteger.ONE);
+        }
+        return leading.toString();
+    }
+
+    /**
+     * Returns the number of decimal digits of F(n)
+     */
+    static long digitCount(long n) {
+        if (n <= FibonacciEngine.MAX_INDEX) {
+            return Long.toString(FibonacciEngine.fibonacci(n)).length();
+        }
+        return log10Fibonacci(n).toBigInteger().longValueExact() + 1;
+    }
+
+    /**
+     * log10 F(n) for n past the exact range; the (-1)^n / phi^(2n) term of
+     * Binet's formula is below 10^-38 there and is ignored
+     */
+    private static BigDecimal log10Fibonacci(long n) {
+        return BigDecimal.valueOf(n).multiply(LOG10_PHI, PRECISION).subtract(LOG10_SQRT_5, PRECISION);
+    }
+
+    /**
+     * F(n) mod m by fast doubling
+     */
+    private static long fibonacciMod(long n, long m, ComputationDeadline deadline) {
+        long a = 0;
+        long b = 1 % m;
+        for (int bit = 63 - Long.numberOfLeadingZeros(n); bit >= 0; bit--) {
+            deadline.check();
+            long even = multiplyMod(a, Math.floorMod(2 * b - a, m), m);
+            long odd = (multiplyMod(a, a, m) + multiplyMod(b, b, m)) % m;
+            if (((n >>> bit) & 1) == 0) {
+                a = even;
+                b = odd;
+            } else {
+                a = odd;
+                b = (even + odd) % m;
+            }
+        }
+        return a;
+    }
+
+    private static long multiplyMod(long a, long b, long m) {
+        if (m <= MAX_DIRECT_MODULUS) {
+            return a * b % m;
+        }
+        return BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).mod(BigInteger.valueOf(m)).longValue();
+    }
+
+    /**
+     * Natural logarithm via ln(x) = 2 * atanh((x - 1) / (x + 1)), for x > 0
+     */
+    private static BigDecimal ln(BigDecimal x) {
+        BigDecimal z = x.subtract(BigDecimal.ONE).divide(x.add(BigDecimal.ONE), PRECISION);
+        BigDecimal zSquared = z.multiply(z, PRECISION);
+        BigDecimal power = z;
+        BigDecimal sum = z;
+        BigDecimal epsilon = BigDecimal.ONE.movePointLeft(PRECISION.getPrecision() + 2);
+        for (int i = 3; ; i += 2) {
+            power = power.multiply(zSquared, PRECISION);
+            BigDecimal term = power.divide(BigDecimal.valueOf(i), PRECISION);
+            if (term.abs().compareTo(epsilon) < 0) {
+                break;
+            }
+            sum = sum.add(term, PRECISION);
+        }
+        return sum.multiply(TWO, PRECISION);
+    }
+
+    /**
+     * Exponential via its Taylor series, for 0 <= x < ln(10)
+     */
+    private static BigDecimal exp(BigDecimal x, ComputationDeadline deadline) {
+        BigDecimal term = BigDecimal.ONE;
+        BigDecimal sum = BigDecimal.ONE;
+        BigDecimal epsilon = BigDecimal.ONE.movePointLeft(PRECISION.getPrecision() + 2);
+        for (int i = 1; term.compareTo(epsilon) >= 0; i++) {
+            deadline.check();
+            term = term.multiply(x, PRECISION).divide(BigDecimal.valueOf(i), PRECISION);
+            sum = sum.add(term, PRECISION);
+        }
+        return sum;
+    }
+}
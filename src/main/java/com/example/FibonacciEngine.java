@@ -0,0 +1,225 @@
+package com.example;
+
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spring-free Fibonacci engine for in-process use
+ *
+ * Ranges are exposed as primitive iterators, spliterators and streams that
+ * never box. A spliterator splits by jumping straight to the midpoint of its
+ * range with the fast doubling identities, so parallel streams divide the
+ * work without computing the prefix first.
+ *
+ * Arithmetic wraps modulo 2^64, which is exact for every F(n) that fits in a
+ * long; ranges are therefore limited to indices 0 to {@link #MAX_INDEX}.
+ */
+public final class FibonacciEngine {
+
+    /**
+     * Largest index whose Fibonacci number fits in a long
+     */
+    public static final int MAX_INDEX = 92;
+
+    private FibonacciEngine() {
+    }
+
+    /**
+     * Returns the Fibonacci number at the given index using fast doubling
+     *
+     * @param n the position in the Fibonacci sequence (0-based)
+     * @return the Fibonacci number at the given position
+     * @throws IllegalArgumentException if index is negative
+     * @throws ArithmeticException if the result is too large for long
+     */
+    public static long fibonacci(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Index cannot be negative");
+        }
+        if (n > MAX_INDEX) {
+            throw new ArithmeticException("Fibonacci number too large for long type");
+        }
+        return new RangeSpliterator(n, n + 1, ComputationDeadline.current()).current;
+    }
+
+    /**
+     * Returns an iterator over F(fromIndex) up to but excluding F(toIndex)
+     *
+     * @throws IllegalArgumentException if the range is negative or reversed
+     * @throws ArithmeticException if the range reaches past {@link #MAX_INDEX}
+     */
+    public static PrimitiveIterator.OfLong iterator(long fromIndex, long toIndex) {
+        return Spliterators.iterator(spliterator(fromIndex, toIndex));
+    }
+
+    /**
+     * Returns a spliterator over F(fromIndex) up to but excluding F(toIndex)
+     *
+     * @throws IllegalArgumentException if the range is negative or reversed
+     * @throws ArithmeticException if the range reaches past {@link #MAX_INDEX}
+     */
+    public static Spliterator.OfLong spliterator(long fromIndex, long toIndex) {
+        checkRange(fromIndex, toIndex);
+        return new RangeSpliterator(fromIndex, toIndex, ComputationDeadline.current());
+    }
+
+    /**
+     * Returns a sequential stream of F(fromIndex) up to but excluding F(toIndex)
+     * Call {@link LongStream#parallel()} on the result to spread it across cores
+     *
+     * @throws IllegalArgumentException if the range is negative or reversed
+     * @throws ArithmeticException if the range reaches past {@link #MAX_INDEX}
+     */
+    public static LongStream stream(long fromIndex, long toIndex) {
+        return StreamSupport.longStream(spliterator(fromIndex, toIndex), false);
+    }
+
+    private static void checkRange(long fromIndex, long toIndex) {
+        if (fromIndex < 0) {
+            throw new IllegalArgumentException("Index cannot be negative");
+        }
+        if (toIndex < fromIndex) {
+            throw new IllegalArgumentException("End index cannot be before start index");
+        }
+        if (toIndex > MAX_INDEX + 1L) {
+            throw new ArithmeticException("Fibonacci number too large for long type");
+        }
+    }
+
+    /**
+     * Spliterator over a range of indices holding F(index) and F(index + 1)
+     *
+     * Parallel substreams share the deadline of the thread that created the
+     * root. Once a spliterator has been split, it and its parts may be
+     * traversed by pool threads, so they no longer count steps on the
+     * deadline and only poll its clock and cancelled flag.
+     */
+    private static final class RangeSpliterator implements Spliterator.OfLong {
+
+        private static final int CHARACTERISTICS =
+            ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+
+        /**
+         * Shared deadlines are polled on the first check and every 64th after it
+         */
+        private static final long SHARED_STRIDE_MASK = 63;
+
+        private final ComputationDeadline deadline;
+        private boolean shared;
+        private long sharedChecks;
+        private long index;
+        private final long end;
+        private long current;
+        private long next;
+
+        RangeSpliterator(long fromIndex, long toIndex, ComputationDeadline deadline) {
+            this.end = toIndex;
+            this.deadline = deadline;
+            seek(fromIndex);
+        }
+
+        private RangeSpliterator(long fromIndex, long toIndex, ComputationDeadline deadline,
+                long current, long next) {
+            this.index = fromIndex;
+            this.end = toIndex;
+            this.deadline = deadline;
+            this.shared = true;
+            this.current = current;
+            this.next = next;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (index >= end) {
+                return false;
+            }
+            checkDeadline();
+            long value = current;
+            advance();
+            action.accept(value);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            long a = current;
+            long b = next;
+            for (long i = index; i < end; i++) {
+                checkDeadline();
+                action.accept(a);
+                long sum = a + b;
+                a = b;
+                b = sum;
+            }
+            index = end;
+            current = a;
+            next = b;
+        }
+
+        /**
+         * Jumps to F(n) and F(n + 1) with the identities
+         * F(2k) = F(k) * (2 * F(k + 1) - F(k)) and F(2k + 1) = F(k)^2 + F(k + 1)^2
+         */
+        private void seek(long n) {
+            long a = 0;
+            long b = 1;
+            for (int bit = 63 - Long.numberOfLeadingZeros(n); bit >= 0; bit--) {
+                checkDeadline();
+                long even = a * (2 * b - a);
+                long odd = a * a + b * b;
+                if (((n >>> bit) & 1) == 0) {
+                    a = even;
+                    b = odd;
+                } else {
+                    a = odd;
+                    b = even + odd;
+                }
+            }
+            index = n;
+            current = a;
+            next = b;
+        }
+
+        private void checkDeadline() {
+            if (!shared) {
+                deadline.check();
+            } else if ((sharedChecks++ & SHARED_STRIDE_MASK) == 0) {
+                deadline.checkShared();
+            }
+        }
+
+        private void advance() {
+            long sum = current + next;
+            current = next;
+            next = sum;
+            index++;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            long size = end - index;
+            if (size < 2) {
+                return null;
+            }
+            long mid = index + size / 2;
+            shared = true;
+            RangeSpliterator prefix = new RangeSpliterator(index, mid, deadline, current, next);
+            seek(mid);
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a request handled by {@link FibonacciController}
+ */
+@Name("com.example.FibonacciRequest")
+@Label("Fibonacci Request")
+@Category("Fibonacci")
+@Description("A Fibonacci API request")
+@StackTrace(false)
+public class FibonacciRequestEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Index")
+    @Description("Requested index, or the start index for sequences")
+    long index;
+
+    @Label("Count")
+    int count;
+
+    @Label("Cache Hit")
+    @Description("Whether every value came from the cache without any calculation")
+    boolean cacheHit;
+
+    @Label("Steps")
+    @Description("Calculation steps spent in the calculator")
+    long steps;
+
+    @Label("Bytes Produced")
+    @Description("Size of the decimal representation of the returned values")
+    @DataAmount
+    long bytesProduced;
+
+    @Label("Status")
+    int status;
+}
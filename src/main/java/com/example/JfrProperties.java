@@ -0,0 +1,51 @@
+package com.example;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits for on-demand Flight Recorder recordings
+ */
+@Component
+@ConfigurationProperties(prefix = "fibonacci.jfr")
+public class JfrProperties {
+
+    /**
+     * Recording configuration to use, either "default" or "profile"
+     */
+    private String settings = "profile";
+
+    /**
+     * Longest a recording may run before it stops by itself
+     */
+    private long maxDurationSeconds = 300;
+
+    /**
+     * Largest amount of recording data kept on disk
+     */
+    private long maxSizeMb = 100;
+
+    public String getSettings() {
+        return settings;
+    }
+
+    public void setSettings(String settings) {
+        this.settings = settings;
+    }
+
+    public long getMaxDurationSeconds() {
+        return maxDurationSeconds;
+    }
+
+    public void setMaxDurationSeconds(long maxDurationSeconds) {
+        this.maxDurationSeconds = maxDurationSeconds;
+    }
+
+    public long getMaxSizeMb() {
+        return maxSizeMb;
+    }
+
+    public void setMaxSizeMb(long maxSizeMb) {
+        this.maxSizeMb = maxSizeMb;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint for on-demand Flight Recorder profiling
+ *
+ * POST /actuator/jfr starts a recording bounded in duration and size,
+ * GET reports its state and DELETE stops it and returns the recording file.
+ * Only one recording runs at a time.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private final JfrProperties properties;
+    private Recording recording;
+    private Path dumpFile;
+
+    public JfrRecordingEndpoint(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Reports the state of the current recording
+     */
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState().name());
+        status.put("name", recording.getName());
+        status.put("startTime", recording.getStartTime());
+        status.put("duration", recording.getDuration());
+        status.put("maxSize", recording.getMaxSize());
+        return status;
+    }
+
+    /**
+     * Starts a recording; limits above the configured maximums are capped
+     *
+     * @param durationSeconds how long to record, defaults to the configured maximum
+     * @param maxSizeMb how much data to keep, defaults to the configured maximum
+     */
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(
+            @Nullable Long durationSeconds, @Nullable Long maxSizeMb) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(status(), HttpStatus.CONFLICT.value());
+        }
+        closeRecording();
+
+        long seconds = bounded(durationSeconds, properties.getMaxDurationSeconds());
+        long megabytes = bounded(maxSizeMb, properties.getMaxSizeMb());
+        try {
+            Recording newRecording = new Recording(Configuration.getConfiguration(properties.getSettings()));
+            newRecording.setName("fibonacci-" + System.currentTimeMillis());
+            newRecording.setToDisk(true);
+            newRecording.setDuration(Duration.ofSeconds(seconds));
+            newRecording.setMaxSize(megabytes * 1024 * 1024);
+            newRecording.enable(FibonacciComputationEvent.class);
+            newRecording.enable(FibonacciRequestEvent.class);
+            newRecording.start();
+            recording = newRecording;
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot load JFR settings '" + properties.getSettings() + "'", e);
+        }
+        return new WebEndpointResponse<>(status());
+    }
+
+    /**
+     * Stops the current recording and returns it as a JFR file
+     */
+    @DeleteOperation
+    public synchronized WebEndpointResponse<Resource> stop() {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            deleteDumpFile();
+            dumpFile = Files.createTempFile(recording.getName() + "-", ".jfr");
+            recording.dump(dumpFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            closeRecording();
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(dumpFile));
+    }
+
+    /**
+     * Discards any recording when the application shuts down
+     */
+    @PreDestroy
+    public synchronized void shutdown() throws IOException {
+        closeRecording();
+        deleteDumpFile();
+    }
+
+    private static long bounded(Long requested, long maximum) {
+        if (requested == null || requested <= 0) {
+            return maximum;
+        }
+        return Math.min(requested, maximum);
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * Only the most recent recording file is kept
+     */
+    private void deleteDumpFile() throws IOException {
+        if (dumpFile != null) {
+            Files.deleteIfExists(dumpFile);
+            dumpFile = null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * Spring cache holding at most a fixed number of entries
+ * The least recently used entry is evicted to make room for a new one
+ */
+class LruCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Map<Object, Object> store;
+
+    LruCache(String name, int maxEntries) {
+        super(false);
+        this.name = name;
+        this.store = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return store;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return store.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        synchronized (store) {
+            Object value = store.get(key);
+            if (value == null) {
+                try {
+                    value = valueLoader.call();
+                } catch (Exception e) {
+                    throw new ValueRetrievalException(key, valueLoader, e);
+                }
+                store.put(key, value);
+            }
+            return (T) value;
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        store.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        store.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+    }
+
+    int size() {
+        return store.size();
+    }
+}
@@ -0,0 +1,268 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Result tier kept outside the Java heap
+ *
+ * A single direct slab is reserved at startup and divided into fixed-size
+ * blocks, so storing a result never triggers a heap (or humongous)
+ * allocation. Entries are evicted least recently used first. An entry being
+ * written to a response is pinned, and its blocks are only reused once the
+ * handle is closed.
+ */
+@Component
+public class OffHeapResultStore {
+
+    private final ByteBuffer slab;
+    private final int blockBytes;
+    private final int[] freeBlocks;
+    private int freeCount;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter evictions;
+    private final Counter refusals;
+
+    public OffHeapResultStore(OffHeapProperties properties, MeterRegistry meterRegistry) {
+        this.blockBytes = properties.getBlockBytes();
+        if (properties.isEnabled()) {
+            if (blockBytes <= 0) {
+                throw new IllegalArgumentException("fibonacci.offheap.block-bytes must be positive");
+            }
+            if (properties.getCapacityBytes() < blockBytes) {
+                throw new IllegalArgumentException("fibonacci.offheap.capacity-bytes must hold at least one block");
+            }
+            int blocks = properties.getCapacityBytes() / blockBytes;
+            this.slab = ByteBuffer.allocateDirect(blocks * blockBytes);
+            this.freeBlocks = new int[blocks];
+            for (int i = 0; i < blocks; i++) {
+                freeBlocks[i] = blocks - 1 - i;
+            }
+            this.freeCount = blocks;
+        } else {
+            this.slab = null;
+            this.freeBlocks = new int[0];
+        }
+        this.evictions = Counter.builder("fibonacci.offheap.evictions")
+            .description("Results evicted from the off-heap tier")
+            .register(meterRegistry);
+        this.refusals = Counter.builder("fibonacci.offheap.refused")
+            .description("Results not stored because they are larger than the slab or blocks are pinned")
+            .register(meterRegistry);
+        Gauge.builder("fibonacci.offheap.capacity", this, OffHeapResultStore::getCapacityBytes)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("fibonacci.offheap.used", this, OffHeapResultStore::getUsedBytes)
+            .description("Off-heap bytes held by stored results, in whole blocks")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("fibonacci.offheap.entries", this, OffHeapResultStore::size)
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return slab != null;
+    }
+
+    /**
+     * Copies a compressed result into off-heap blocks, evicting older results as needed
+     *
+     * @return false if the result could not be stored
+     */
+    public synchronized boolean put(String key, String encoding, String contentType,
+            byte[] bytes, int originalLength) {
+        if (slab == null) {
+            return false;
+        }
+        int needed = Math.max(1, (bytes.length + blockBytes - 1) / blockBytes);
+        if (needed > freeBlocks.length) {
+            refusals.increment();
+            return false;
+        }
+
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            discard(previous);
+        }
+        for (Iterator<Entry> it = entries.values().iterator(); freeCount < needed && it.hasNext(); ) {
+            Entry eldest = it.next();
+            it.remove();
+            discard(eldest);
+            evictions.increment();
+        }
+        if (freeCount < needed) {
+            // The remaining blocks are pinned by responses still being written
+            refusals.increment();
+            return false;
+        }
+
+        int[] blocks = new int[needed];
+        for (int i = 0; i < needed; i++) {
+            int block = freeBlocks[--freeCount];
+            blocks[i] = block;
+            int offset = i * blockBytes;
+            slab.put(block * blockBytes, bytes, offset, Math.min(blockBytes, bytes.length - offset));
+        }
+        entries.put(key, new Entry(encoding, contentType, originalLength, bytes.length, blocks));
+        return true;
+    }
+
+    /**
+     * Pins a stored result so it can be read outside the lock
+     *
+     * @return a handle to close once reading is done, or null if the key is not stored
+     */
+    public synchronized Handle acquire(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.pins++;
+        return new Handle(entry);
+    }
+
+    private synchronized void release(Entry entry) {
+        entry.pins--;
+        if (entry.removed && entry.pins == 0) {
+            free(entry);
+        }
+    }
+
+    private void discard(Entry entry) {
+        entry.removed = true;
+        if (entry.pins == 0) {
+            free(entry);
+        }
+    }
+
+    private void free(Entry entry) {
+        for (int block : entry.blocks) {
+            freeBlocks[freeCount++] = block;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getCapacityBytes() {
+        return (long) freeBlocks.length * blockBytes;
+    }
+
+    public synchronized long getUsedBytes() {
+        return (long) (freeBlocks.length - freeCount) * blockBytes;
+    }
+
+    private ByteBuffer block(Entry entry, int index) {
+        int offset = index * blockBytes;
+        return slab.slice(entry.blocks[index] * blockBytes, Math.min(blockBytes, entry.length - offset));
+    }
+
+    private static final class Entry {
+        final String encoding;
+        final String contentType;
+        final int originalLength;
+        final int length;
+        final int[] blocks;
+        int pins;
+        boolean removed;
+
+        Entry(String encoding, String contentType, int originalLength, int length, int[] blocks) {
+            this.encoding = encoding;
+            this.contentType = contentType;
+            this.originalLength = originalLength;
+            this.length = length;
+            this.blocks = blocks;
+        }
+    }
+
+    /**
+     * Pinned view of a stored result
+     */
+    public final class Handle implements StoredResult, AutoCloseable {
+
+        private final Entry entry;
+        private boolean closed;
+
+        private Handle(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public String encoding() {
+            return entry.encoding;
+        }
+
+        @Override
+        public String contentType() {
+            return entry.contentType;
+        }
+
+        @Override
+        public int originalLength() {
+            return entry.originalLength;
+        }
+
+        @Override
+        public int compressedLength() {
+            return entry.length;
+        }
+
+        @Override
+        public void transferTo(OutputStream out) throws IOException {
+            WritableByteChannel channel = Channels.newChannel(out);
+            for (int i = 0; i < entry.blocks.length; i++) {
+                ByteBuffer block = block(entry, i);
+                while (block.hasRemaining()) {
+                    channel.write(block);
+                }
+            }
+        }
+
+        @Override
+        public InputStream openStream() {
+            return new InputStream() {
+                private int index;
+                private ByteBuffer current = block(entry, 0);
+
+                @Override
+                public int read() {
+                    byte[] one = new byte[1];
+                    return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    while (!current.hasRemaining()) {
+                        if (++index >= entry.blocks.length) {
+                            return -1;
+                        }
+                        current = block(entry, index);
+                    }
+                    int count = Math.min(length, current.remaining());
+                    current.get(buffer, offset, count);
+                    return count;
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.example;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Stores large successful responses already compressed and serves them as-is
+ *
+ * A client whose Accept-Encoding includes the stored encoding receives the
+ * cached bytes with a matching Content-Encoding; other clients receive the
+ * body decompressed on the fly while it is written. Results are kept in the
+ * {@link OffHeapResultStore} when it is enabled, otherwise in the
+ * compressedResults cache.
+ *
+ * A served stored result is recorded as a {@link FibonacciRequestEvent}
+ * cache hit, since the request never reaches the controller.
+ *
+ * Results are keyed on the path and the configured key parameters, with
+ * defaults filled in and numbers normalized; any other query parameter is
+ * ignored so that junk or reordered parameters cannot multiply entries.
+ */
+@Component
+public class PrecompressedResponseFilter extends OncePerRequestFilter {
+
+    private final CompressionProperties properties;
+    private final OffHeapResultStore offHeapStore;
+    private final Cache cache;
+    private final DistributionSummary compressionRatio;
+    private final MeterRegistry meterRegistry;
+
+    public PrecompressedResponseFilter(CompressionProperties properties, OffHeapResultStore offHeapStore,
+            CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.offHeapStore = offHeapStore;
+        this.cache = cacheManager.getCache("compressedResults");
+        this.meterRegistry = meterRegistry;
+        this.compressionRatio = DistributionSummary.builder("fibonacci.compression.ratio")
+            .description("Uncompressed size divided by compressed size of stored results")
+            .register(meterRegistry);
+        Gauge.builder("fibonacci.compression.level", properties, CompressionProperties::getLevel)
+            .description("Deflate level used for stored results")
+            .register(meterRegistry);
+        Gauge.builder("fibonacci.compression.threshold", properties, CompressionProperties::getThresholdBytes)
+            .description("Smallest response body stored compressed")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || cache == null
+            || !"GET".equals(request.getMethod())
+            || !properties.getPaths().contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        String key = cacheKey(request);
+        boolean accepted = acceptsEncoding(request.getHeader(HttpHeaders.ACCEPT_ENCODING), properties.getEncoding());
+
+        if (offHeapStore.isEnabled()) {
+            try (OffHeapResultStore.Handle stored = offHeapStore.acquire(key)) {
+                if (stored != null) {
+                    serveStored(stored, accepted, request, response);
+                    return;
+                }
+            }
+        } else {
+            CompressedBody stored = cache.get(key, CompressedBody.class);
+            if (stored != null) {
+                serveStored(stored, accepted, request, response);
+                return;
+            }
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        byte[] body = wrapper.getContentAsByteArray();
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || body.length < properties.getThresholdBytes()) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        CompressedBody compressed = compress(body, wrapper.getContentType());
+        if (offHeapStore.isEnabled()) {
+            // A result the tier refuses is not kept on the heap either, since reads never look there
+            offHeapStore.put(key, compressed.encoding(), compressed.contentType(),
+                compressed.bytes(), compressed.originalLength());
+        } else {
+            cache.put(key, compressed);
+        }
+        compressionRatio.record((double) body.length / compressed.bytes().length);
+        if (accepted) {
+            wrapper.resetBuffer();
+            write(compressed, true, response);
+        } else {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Builds the storage key from the path and the key parameters, in their configured order
+     */
+    String cacheKey(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        char separator = '?';
+        for (Map.Entry<String, String> parameter : properties.getKeyParameters().entrySet()) {
+            String value = request.getParameter(parameter.getKey());
+            key.append(separator).append(parameter.getKey()).append('=')
+                .append(normalize(value != null ? value : parameter.getValue()));
+            separator = '&';
+        }
+        return key.toString();
+    }
+
+    private static String normalize(String value) {
+        try {
+            return Long.toString(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+
+    /**
+     * Writes a stored result and records it as a cache hit, since the controller never sees the request
+     */
+    private void serveStored(StoredResult body, boolean passthrough, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        FibonacciRequestEvent event = new FibonacciRequestEvent();
+        event.begin();
+        write(body, passthrough, response);
+        event.end();
+        if (event.shouldCommit()) {
+            long start = keyParameter(request, "start");
+            long count = keyParameter(request, "count");
+            String uri = request.getRequestURI();
+            event.endpoint = uri.substring(uri.lastIndexOf('/') + 1);
+            event.index = start;
+            event.count = (int) count;
+            event.cacheHit = true;
+            event.steps = 0;
+            event.bytesProduced = sequenceDigits(start, count);
+            event.status = HttpServletResponse.SC_OK;
+            event.commit();
+        }
+    }
+
+    private long keyParameter(HttpServletRequest request, String name) {
+        String value = request.getParameter(name);
+        if (value == null) {
+            value = properties.getKeyParameters().getOrDefault(name, "0");
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Decimal digits of F(start) to F(start + count - 1), matching the controller's bytesProduced
+     * Computed with a plain loop so that an expired deadline cannot fail a cache hit
+     */
+    private static long sequenceDigits(long start, long count) {
+        long digits = 0;
+        long a = 0;
+        long b = 1;
+        for (long i = 0; i < start + count && i <= FibonacciEngine.MAX_INDEX; i++) {
+            if (i >= start) {
+                digits += Long.toString(a).length();
+            }
+            long sum = a + b;
+            a = b;
+            b = sum;
+        }
+        return digits;
+    }
+
+    private void write(StoredResult body, boolean passthrough, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(body.contentType());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (passthrough) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, body.encoding());
+            response.setContentLength(body.compressedLength());
+            body.transferTo(response.getOutputStream());
+        } else {
+            response.setContentLength(body.originalLength());
+            try (InputStream in = decompress(body)) {
+                in.transferTo(response.getOutputStream());
+            }
+        }
+        Counter.builder("fibonacci.compression.served")
+            .description("Stored compressed results served")
+            .tag("mode", passthrough ? "passthrough" : "decompressed")
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private CompressedBody compress(byte[] body, String contentType) throws IOException {
+        String encoding = properties.getEncoding().toLowerCase(Locale.ROOT);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 2);
+        if ("gzip".equals(encoding)) {
+            try (OutputStream out = new LeveledGzipOutputStream(buffer, properties.getLevel())) {
+                out.write(body);
+            }
+        } else {
+            Deflater deflater = new Deflater(properties.getLevel());
+            try (OutputStream out = new DeflaterOutputStream(buffer, deflater)) {
+                out.write(body);
+            } finally {
+                deflater.end();
+            }
+        }
+        return new CompressedBody(encoding, contentType, buffer.toByteArray(), body.length);
+    }
+
+    private static InputStream decompress(StoredResult body) throws IOException {
+        InputStream in = body.openStream();
+        return "gzip".equals(body.encoding()) ? new GZIPInputStream(in) : new InflaterInputStream(in);
+    }
+
+    /**
+     * Checks whether an Accept-Encoding header allows the given coding with a non-zero quality
+     * An explicit entry for the coding takes precedence over the "*" wildcard
+     */
+    static boolean acceptsEncoding(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] fields = part.trim().split(";");
+            String coding = fields[0].trim();
+            if (coding.equalsIgnoreCase(encoding)) {
+                return !hasZeroQuality(fields);
+            }
+            if (coding.equals("*")) {
+                wildcard = !hasZeroQuality(fields);
+            }
+        }
+        return wildcard;
+    }
+
+    private static boolean hasZeroQuality(String[] fields) {
+        for (int i = 1; i < fields.length; i++) {
+            String param = fields[i].trim();
+            if (param.startsWith("q=") && isZeroQuality(param.substring(2))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String quality) {
+        try {
+            return Double.parseDouble(quality) == 0;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Compressed response body as stored in the on-heap cache
+     */
+    record CompressedBody(String encoding, String contentType, byte[] bytes, int originalLength)
+            implements StoredResult {
+
+        @Override
+        public int compressedLength() {
+            return bytes.length;
+        }
+
+        @Override
+        public void transferTo(OutputStream out) throws IOException {
+            out.write(bytes);
+        }
+
+        @Override
+        public InputStream openStream() {
+            return new ByteArrayInputStream(bytes);
+        }
+    }
+
+    /**
+     * GZIPOutputStream with a configurable compression level
+     */
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Compressed response body held by one of the result stores
+ */
+interface StoredResult {
+
+    /**
+     * @return the Content-Encoding of the stored bytes
+     */
+    String encoding();
+
+    String contentType();
+
+    /**
+     * @return the size of the body before compression
+     */
+    int originalLength();
+
+    /**
+     * @return the size of the stored compressed bytes
+     */
+    int compressedLength();
+
+    /**
+     * Writes the stored compressed bytes to the given stream
+     */
+    void transferTo(OutputStream out) throws IOException;
+
+    /**
+     * Opens a stream over the stored compressed bytes
+     */
+    InputStream openStream();
+}
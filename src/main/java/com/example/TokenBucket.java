@@ -0,0 +1,58 @@
+package com.example;
+
+/**
+ * Token bucket holding a client's calculation budget
+ */
+class TokenBucket {
+
+    private final long capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = Math.max(1, capacity);
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = this.capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Takes the given cost from the bucket if enough tokens are available
+     * A cost above the capacity is charged as a full bucket so that heavy
+     * requests remain possible for an otherwise idle client
+     *
+     * @param cost the number of tokens to take
+     * @param nowNanos the current time
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until they will be available
+     */
+    synchronized long tryConsume(long cost, long nowNanos) {
+        refill(nowNanos);
+        long charge = Math.min(cost, capacity);
+        if (tokens >= charge) {
+            tokens -= charge;
+            return 0;
+        }
+        if (refillPerNano <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return (long) Math.ceil((charge - tokens) / refillPerNano);
+    }
+
+    /**
+     * Returns tokens taken by {@link #tryConsume(long, long)} for a request that was not admitted
+     *
+     * @param cost the cost passed to tryConsume
+     */
+    synchronized void refund(long cost) {
+        tokens = Math.min(capacity, tokens + Math.min(cost, capacity));
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Bulk Fibonacci coding of non-negative longs
+ *
+ * Each value v is written as the Zeckendorf representation of v + 1, the
+ * unique sum of non-consecutive Fibonacci numbers F(2), F(3), ..., one bit
+ * per term starting with F(2), followed by a terminating 1 bit. No codeword
+ * contains two adjacent 1 bits except its terminator, so codewords are
+ * self-delimiting. Codewords are packed back to back, most significant bit
+ * of each byte first, and the last byte is padded with zero bits.
+ *
+ * Encoding sizes the output exactly before writing, then touches only the
+ * 1 bits, finding each greedy term with a table lookup on the bit length.
+ * Decoding reads 64 bits at a time and jumps between 1 bits, so runs of
+ * zero bits cost nothing.
+ */
+public final class ZeckendorfCodec {
+
+    /**
+     * F(2) to F(92), the terms available to a long
+     */
+    private static final long[] TERMS = terms();
+
+    /**
+     * Largest value that can be encoded, since v + 1 must fit in a long
+     */
+    public static final long MAX_VALUE = Long.MAX_VALUE - 1;
+
+    /**
+     * For each bit length b, the index of the largest term not above 2^(b - 1)
+     */
+    private static final int[] TERM_BY_BIT_LENGTH = new int[Long.SIZE];
+
+    static {
+        int j = 0;
+        for (int bits = 1; bits < Long.SIZE; bits++) {
+            while (j + 1 < TERMS.length && TERMS[j + 1] <= 1L << (bits - 1)) {
+                j++;
+            }
+            TERM_BY_BIT_LENGTH[bits] = j;
+        }
+    }
+
+    private ZeckendorfCodec() {
+    }
+
+    /**
+     * Builds the term table with a plain loop; class initialization may run on a
+     * request thread and must not check that request's deadline
+     */
+    private static long[] terms() {
+        long[] terms = new long[FibonacciEngine.MAX_INDEX - 1];
+        terms[0] = 1;
+        terms[1] = 2;
+        for (int i = 2; i < terms.length; i++) {
+            terms[i] = terms[i - 1] + terms[i - 2];
+        }
+        return terms;
+    }
+
+    /**
+     * Encodes the given values as a packed Fibonacci-coded bit stream
+     *
+     * @param values the values to encode, each from 0 to {@link #MAX_VALUE}
+     * @return the packed codewords
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public static byte[] encode(long[] values) {
+        ComputationDeadline deadline = ComputationDeadline.current();
+        long totalBits = 0;
+        for (long value : values) {
+            if (value < 0 || value > MAX_VALUE) {
+                throw new IllegalArgumentException("Value out of range: " + value);
+            }
+            totalBits += highestTerm(value + 1) + 2;
+        }
+        if ((totalBits + 7) / 8 > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Encoded stream too large");
+        }
+
+        byte[] out = new byte[(int) ((totalBits + 7) / 8)];
+        long position = 0;
+        for (long value : values) {
+            deadline.check();
+            long remainder = value + 1;
+            int top = highestTerm(remainder);
+            for (int j = top; remainder > 0; j = highestTerm(remainder)) {
+                remainder -= TERMS[j];
+                setBit(out, position + j);
+            }
+            setBit(out, position + top + 1);
+            position += top + 2;
+        }
+        return out;
+    }
+
+    /**
+     * Decodes a packed Fibonacci-coded bit stream
+     *
+     * @param stream the packed codewords
+     * @param maxValues the most values to accept
+     * @return the decoded values
+     * @throws IllegalArgumentException if the stream is malformed or holds more than maxValues values
+     */
+    public static long[] decode(byte[] stream, int maxValues) {
+        ComputationDeadline deadline = ComputationDeadline.current();
+        long[] values = new long[Math.min(maxValues, Math.max(16, stream.length / 2))];
+        int count = 0;
+        long start = 0;
+        long previousOne = -2;
+        long value = 0;
+
+        ByteBuffer buffer = ByteBuffer.wrap(stream);
+        for (long wordStart = 0; wordStart < stream.length * 8L; wordStart += 64) {
+            deadline.check();
+            long word = readWord(buffer, (int) (wordStart / 8));
+            while (word != 0) {
+                int offset = Long.numberOfLeadingZeros(word);
+                word &= ~(Long.MIN_VALUE >>> offset);
+                long position = wordStart + offset;
+                // Kept as a long: a run of over 2^31 zero bits must not wrap to a valid index
+                long j = position - start;
+
+                if (previousOne == position - 1) {
+                    // Terminator
+                    if (count == maxValues) {
+                        throw new IllegalArgumentException("Stream holds more than " + maxValues + " values");
+                    }
+                    if (count == values.length) {
+                        values = Arrays.copyOf(values, (int) Math.min(maxValues, values.length * 2L));
+                    }
+                    values[count++] = value - 1;
+                    start = position + 1;
+                    previousOne = -2;
+                    value = 0;
+                } else {
+                    if (j >= TERMS.length || value > Long.MAX_VALUE - TERMS[(int) j]) {
+                        throw new IllegalArgumentException("Codeword too long at bit " + position);
+                    }
+                    value += TERMS[(int) j];
+                    previousOne = position;
+                }
+            }
+        }
+
+        if (value != 0) {
+            throw new IllegalArgumentException("Stream ends inside a codeword");
+        }
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Index in TERMS of the largest term not above the given positive value
+     * Terms more than double every two indices, so at most two steps follow the table lookup
+     */
+    private static int highestTerm(long value) {
+        int j = TERM_BY_BIT_LENGTH[Long.SIZE - Long.numberOfLeadingZeros(value)];
+        while (j + 1 < TERMS.length && TERMS[j + 1] <= value) {
+            j++;
+        }
+        return j;
+    }
+
+    private static void setBit(byte[] out, long position) {
+        out[(int) (position >>> 3)] |= (byte) (0x80 >>> (position & 7));
+    }
+
+    /**
+     * Reads up to 8 bytes starting at the given offset as a big-endian word
+     */
+    private static long readWord(ByteBuffer buffer, int offset) {
+        if (offset + Long.BYTES <= buffer.limit()) {
+            return buffer.getLong(offset);
+        }
+        long word = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            word <<= 8;
+            if (offset + i < buffer.limit()) {
+                word |= buffer.get(offset + i) & 0xFF;
+            }
+        }
+        return word;
+    }
+}
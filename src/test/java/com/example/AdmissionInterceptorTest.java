@@ -0,0 +1,157 @@
+package com.example;
+
+import java.util.Map;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AdmissionInterceptor
+ */
+public class AdmissionInterceptorTest {
+
+    // F(20) by recursion costs 2 * F(21) - 1 = 21891 steps, so a bucket of 30000 holds one
+    private static final int INDEX = 20;
+
+    private AdmissionProperties properties;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new AdmissionProperties();
+        properties.setBucketCapacity(30_000);
+        properties.setRefillPerSecond(0);
+        properties.setGlobalBudget(1_000_000);
+        properties.setQueueTimeoutMs(0);
+        properties.getClientWeights().put("partner", 1.0);
+    }
+
+    private AdmissionInterceptor interceptor() {
+        return new AdmissionInterceptor(properties,
+            new CostEstimator(new ConcurrentMapCacheManager()), new SimpleMeterRegistry());
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String clientId) {
+        return request(remoteAddr, clientId, INDEX);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String clientId, int index) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/fibonacci/" + index);
+        request.setRemoteAddr(remoteAddr);
+        if (clientId != null) {
+            request.addHeader("X-Client-Id", clientId);
+        }
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/fibonacci/{index}");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE,
+            Map.of("index", Integer.toString(index)));
+        return request;
+    }
+
+    private static int admit(AdmissionInterceptor interceptor, MockHttpServletRequest request)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+        return response.getStatus();
+    }
+
+    @Test
+    public void shouldIgnoreUnlistedClientIds() throws Exception {
+        AdmissionInterceptor interceptor = interceptor();
+
+        assertThat(admit(interceptor, request("10.0.0.1", "rotating-1"))).isEqualTo(200);
+        assertThat(admit(interceptor, request("10.0.0.1", "rotating-2"))).isEqualTo(429);
+        assertThat(admit(interceptor, request("10.0.0.2", "rotating-3"))).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldHonourListedClientIds() throws Exception {
+        AdmissionInterceptor interceptor = interceptor();
+
+        assertThat(admit(interceptor, request("10.0.0.1", null))).isEqualTo(200);
+        assertThat(admit(interceptor, request("10.0.0.1", "partner"))).isEqualTo(200);
+        assertThat(admit(interceptor, request("10.0.0.1", "partner"))).isEqualTo(429);
+    }
+
+    @Test
+    public void shouldTrustOnlyConfiguredProxiesWhenSet() throws Exception {
+        properties.getTrustedProxies().add("10.0.0.9");
+        AdmissionInterceptor interceptor = interceptor();
+
+        assertThat(admit(interceptor, request("10.0.0.9", "alice"))).isEqualTo(200);
+        assertThat(admit(interceptor, request("10.0.0.9", "bob"))).isEqualTo(200);
+        assertThat(admit(interceptor, request("10.0.0.1", "partner"))).isEqualTo(200);
+        assertThat(admit(interceptor, request("10.0.0.1", "alice"))).isEqualTo(429);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedClientBeyondCap() throws Exception {
+        properties.setMaxClients(2);
+        AdmissionInterceptor interceptor = interceptor();
+
+        assertThat(admit(interceptor, request("10.0.0.1", null))).isEqualTo(200);
+        assertThat(admit(interceptor, request("10.0.0.2", null))).isEqualTo(200);
+        assertThat(admit(interceptor, request("10.0.0.2", null))).isEqualTo(429);
+        assertThat(admit(interceptor, request("10.0.0.3", null))).isEqualTo(200);
+
+        // 10.0.0.1 was least recently used and starts again with a full bucket; 10.0.0.2 was kept
+        assertThat(admit(interceptor, request("10.0.0.1", null))).isEqualTo(200);
+        assertThat(admit(interceptor, request("10.0.0.3", null))).isEqualTo(429);
+    }
+
+    @Test
+    public void shouldRefundTokensWhenGlobalBudgetIsExhausted() throws Exception {
+        properties.setGlobalBudget(30_000);
+        properties.setMaxRequestShare(1.0);
+        AdmissionInterceptor interceptor = interceptor();
+
+        MockHttpServletRequest inFlight = request("10.0.0.1", null);
+        MockHttpServletResponse inFlightResponse = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(inFlight, inFlightResponse, null)).isTrue();
+
+        assertThat(admit(interceptor, request("10.0.0.2", null))).isEqualTo(503);
+
+        interceptor.afterCompletion(inFlight, inFlightResponse, null, null);
+        assertThat(admit(interceptor, request("10.0.0.2", null))).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldAdmitCheapRequestWhileHeavyRequestIsInFlight() throws Exception {
+        // The heavy request costs more than the whole budget but may only hold half of it
+        properties.setGlobalBudget(20_000);
+        AdmissionInterceptor interceptor = interceptor();
+
+        MockHttpServletRequest heavy = request("10.0.0.1", null);
+        MockHttpServletResponse heavyResponse = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(heavy, heavyResponse, null)).isTrue();
+
+        assertThat(admit(interceptor, request("10.0.0.2", null, 10))).isEqualTo(200);
+        assertThat(admit(interceptor, request("10.0.0.3", null, 12))).isEqualTo(200);
+
+        interceptor.afterCompletion(heavy, heavyResponse, null, null);
+    }
+
+    @Test
+    public void shouldRejectRequestThatCannotFinishBeforeItsDeadline() throws Exception {
+        // One second at 10000 steps per second cannot cover the 21891 steps of F(20)
+        properties.setStepsPerSecond(10_000);
+        AdmissionInterceptor interceptor = interceptor();
+
+        ComputationDeadline.bind(ComputationDeadline.afterMillis(1000));
+        try {
+            assertThat(admit(interceptor, request("10.0.0.1", null))).isEqualTo(503);
+            assertThat(admit(interceptor, request("10.0.0.1", null, 10))).isEqualTo(200);
+        } finally {
+            ComputationDeadline.clear();
+        }
+
+        // The rejected request was not charged to the client's bucket
+        assertThat(admit(interceptor, request("10.0.0.1", null))).isEqualTo(200);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example;
+
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests cancellation of computations whose client disconnects, over a real connection
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class ClientDisconnectTest {
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private TestRestTemplate restTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    public void shouldCancelComputationWhenClientDisconnects() throws Exception {
+        long start = System.nanoTime();
+        
+        // Naive recursion for F(43) takes seconds; admission accepts it since it fits the 5 second deadline
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /api/fibonacci/43 HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            Thread.sleep(300);
+        }
+        
+        Counter cancelled = null;
+        while (cancelled == null && System.nanoTime() - start < 4_000_000_000L) {
+            cancelled = meterRegistry.find("fibonacci.computations.aborted")
+                .tag("reason", "cancelled")
+                .counter();
+            Thread.sleep(20);
+        }
+        
+        assertThat(cancelled).isNotNull();
+        assertThat(cancelled.count()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("fibonacci.computations.aborted")
+            .tag("reason", "deadline_exceeded")
+            .counter()).isNull();
+    }
+    
+    @Test
+    public void shouldCompleteComputationWhileClientIsConnected() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/fibonacci/32", String.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).contains("2178309");
+    }
+}
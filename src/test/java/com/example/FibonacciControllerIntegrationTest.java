@@ -1,5 +1,10 @@
 package com.example;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -8,8 +13,10 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
@@ -23,6 +30,9 @@ public class FibonacciControllerIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
     
+    @Autowired
+    private OffHeapResultStore offHeapStore;
+    
     @Test
     public void shouldReturnFibonacciNumber() throws Exception {
         mockMvc.perform(get("/api/fibonacci/10"))
@@ -92,4 +102,171 @@ public class FibonacciControllerIntegrationTest {
             .andExpect(jsonPath("$.sequence", hasSize(5)))
             .andExpect(jsonPath("$.sequence", contains(5, 8, 13, 21, 34)));
     }
+    
+    @Test
+    public void shouldAbortWhenDeadlineHasPassed() throws Exception {
+        // Use an index no other test computes so the result cannot come from the cache
+        mockMvc.perform(get("/api/fibonacci/75")
+                .header("X-Request-Timeout-Ms", "0"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(jsonPath("$.value", is(-1)))
+            .andExpect(jsonPath("$.message", containsString("Deadline exceeded")));
+    }
+    
+    @Test
+    public void shouldRejectMalformedDeadlineHeader() throws Exception {
+        mockMvc.perform(get("/api/fibonacci/10")
+                .header("X-Request-Timeout-Ms", "soon"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    public void shouldRejectClientThatExceedsItsBudget() throws Exception {
+        // tiny-client can spend about 2000 steps; F(23) and F(24) each cost more than that
+        mockMvc.perform(get("/api/fibonacci/23")
+                .header("X-Client-Id", "tiny-client"))
+            .andExpect(status().isOk());
+        
+        mockMvc.perform(get("/api/fibonacci/24")
+                .header("X-Client-Id", "tiny-client"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists("Retry-After"));
+    }
+    
+    @Test
+    public void shouldAdmitCheapRequestsFromOtherClients() throws Exception {
+        mockMvc.perform(get("/api/fibonacci/22")
+                .header("X-Client-Id", "regular-client"))
+            .andExpect(status().isOk());
+    }
+    
+    @Test
+    public void shouldServeStoredSequenceCompressedOrPlain() throws Exception {
+        // F(52) to F(73) is over the 256-byte test threshold and avoids indices other tests rely on
+        byte[] plain = mockMvc.perform(get("/api/fibonacci/sequence?start=52&count=22"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Content-Encoding"))
+            .andReturn().getResponse().getContentAsByteArray();
+        
+        byte[] compressed = mockMvc.perform(get("/api/fibonacci/sequence?start=52&count=22")
+                .header("Accept-Encoding", "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Encoding", "gzip"))
+            .andReturn().getResponse().getContentAsByteArray();
+        
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(compressed.length).isLessThan(plain.length);
+            assertThat(in.readAllBytes()).isEqualTo(plain);
+        }
+        
+        mockMvc.perform(get("/api/fibonacci/sequence?start=52&count=22")
+                .header("Accept-Encoding", "gzip;q=0"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Content-Encoding"))
+            .andExpect(jsonPath("$.sequence", hasSize(22)));
+        
+        // An explicit zero quality wins over the wildcard
+        mockMvc.perform(get("/api/fibonacci/sequence?start=52&count=22")
+                .header("Accept-Encoding", "*, gzip;q=0"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Content-Encoding"))
+            .andExpect(jsonPath("$.sequence", hasSize(22)));
+        
+        mockMvc.perform(get("/api/fibonacci/sequence?start=52&count=22")
+                .header("Accept-Encoding", "*"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Encoding", "gzip"));
+    }
+    
+    @Test
+    public void shouldStoreSequenceOnceWhateverTheQueryForm() throws Exception {
+        int stored = offHeapStore.size();
+        
+        mockMvc.perform(get("/api/fibonacci/sequence?start=55&count=20"))
+            .andExpect(status().isOk());
+        assertThat(offHeapStore.size()).isEqualTo(stored + 1);
+        
+        // Reordered, padded and unknown parameters map to the same stored result
+        mockMvc.perform(get("/api/fibonacci/sequence?count=20&start=55&junk=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.sequence", hasSize(20)));
+        mockMvc.perform(get("/api/fibonacci/sequence?start=055&count=20&x=" + System.nanoTime())
+                .header("Accept-Encoding", "gzip"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Encoding", "gzip"));
+        assertThat(offHeapStore.size()).isEqualTo(stored + 1);
+    }
+    
+    @Test
+    public void shouldReturnDigitQueriesForHugeIndex() throws Exception {
+        mockMvc.perform(get("/api/fibonacci/1000000000000/digit-count"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.digitCount", is(208987640250L)));
+        
+        mockMvc.perform(get("/api/fibonacci/1000/last-digits").param("k", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.digits", is("28875")))
+            .andExpect(jsonPath("$.digitCount", is(209)));
+        
+        mockMvc.perform(get("/api/fibonacci/1000/leading-digits").param("k", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.digits", is("43466")));
+    }
+    
+    @Test
+    public void shouldRejectDigitQueryWithInvalidK() throws Exception {
+        mockMvc.perform(get("/api/fibonacci/1000/last-digits").param("k", "19"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message", containsString("between 1 and 18")));
+    }
+    
+    @Test
+    public void shouldRejectBulkRequestsWithoutLengthOrOverLimit() throws Exception {
+        mockMvc.perform(post("/api/fibonacci/zeckendorf/encode")
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isLengthRequired());
+        
+        byte[] oversized = new byte[65537];
+        Arrays.fill(oversized, (byte) ' ');
+        oversized[0] = '[';
+        oversized[1] = '1';
+        oversized[oversized.length - 1] = ']';
+        mockMvc.perform(post("/api/fibonacci/zeckendorf/encode")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(oversized))
+            .andExpect(status().isPayloadTooLarge());
+        
+        mockMvc.perform(post("/api/fibonacci/zeckendorf/decode")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(new byte[65537]))
+            .andExpect(status().isPayloadTooLarge());
+    }
+    
+    @Test
+    public void shouldEncodeAndDecodeZeckendorfStreams() throws Exception {
+        byte[] stream = mockMvc.perform(post("/api/fibonacci/zeckendorf/encode")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[0, 1, 3]"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+            .andReturn().getResponse().getContentAsByteArray();
+        
+        assertThat(stream).containsExactly((byte) 0xDD, (byte) 0x80);
+        
+        mockMvc.perform(post("/api/fibonacci/zeckendorf/decode")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(stream))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count", is(3)))
+            .andExpect(jsonPath("$.values", contains(0, 1, 3)));
+    }
+    
+    @Test
+    public void shouldRejectMalformedZeckendorfStream() throws Exception {
+        mockMvc.perform(post("/api/fibonacci/zeckendorf/decode")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(new byte[] {(byte) 0xA0}))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error", containsString("ends inside a codeword")));
+    }
 }
@@ -0,0 +1,126 @@
+package com.example;
+
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Unit tests for the Spring-free Fibonacci engine
+ */
+public class FibonacciEngineTest {
+    
+    private static long[] iterativeFibonacci(int count) {
+        long[] expected = new long[count];
+        for (int i = 0; i < count; i++) {
+            expected[i] = i <= 1 ? i : expected[i - 1] + expected[i - 2];
+        }
+        return expected;
+    }
+    
+    @ParameterizedTest
+    @CsvSource({
+        "0, 0",
+        "1, 1",
+        "10, 55",
+        "71, 308061521170129",
+        "92, 7540113804746346429"
+    })
+    public void shouldCalculateFibonacciNumber(long index, long expected) {
+        assertThat(FibonacciEngine.fibonacci(index)).isEqualTo(expected);
+    }
+    
+    @Test
+    public void shouldStreamEveryFibonacciNumberThatFitsInLong() {
+        assertThat(FibonacciEngine.stream(0, FibonacciEngine.MAX_INDEX + 1).toArray())
+            .containsExactly(iterativeFibonacci(FibonacciEngine.MAX_INDEX + 1));
+    }
+    
+    @Test
+    public void parallelStreamShouldMatchSequentialStream() {
+        long[] expected = iterativeFibonacci(FibonacciEngine.MAX_INDEX + 1);
+        
+        assertThat(FibonacciEngine.stream(0, FibonacciEngine.MAX_INDEX + 1).parallel().toArray())
+            .containsExactly(expected);
+    }
+    
+    @Test
+    public void spliteratorShouldSplitAtMidpoint() {
+        Spliterator.OfLong suffix = FibonacciEngine.spliterator(10, 20);
+        Spliterator.OfLong prefix = suffix.trySplit();
+        
+        assertThat(prefix).isNotNull();
+        assertThat(prefix.estimateSize()).isEqualTo(5);
+        assertThat(suffix.estimateSize()).isEqualTo(5);
+        assertThat(suffix.tryAdvance((long value) -> assertThat(value).isEqualTo(610))).isTrue(); // F(15)
+    }
+    
+    @Test
+    public void iteratorShouldWalkRange() {
+        PrimitiveIterator.OfLong iterator = FibonacciEngine.iterator(5, 10);
+        
+        long[] values = new long[5];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = iterator.nextLong();
+        }
+        
+        assertThat(values).containsExactly(5, 8, 13, 21, 34);
+        assertThat(iterator.hasNext()).isFalse();
+    }
+    
+    @Test
+    public void shouldRejectNegativeIndex() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> FibonacciEngine.stream(-1, 5))
+            .withMessageContaining("negative");
+    }
+    
+    @Test
+    public void shouldRejectRangePastLongOverflow() {
+        assertThatExceptionOfType(ArithmeticException.class)
+            .isThrownBy(() -> FibonacciEngine.fibonacci(FibonacciEngine.MAX_INDEX + 1))
+            .withMessageContaining("too large for long");
+    }
+    
+    @Test
+    public void shouldRejectIndexAtLongLimit() {
+        assertThatExceptionOfType(ArithmeticException.class)
+            .isThrownBy(() -> FibonacciEngine.fibonacci(Long.MAX_VALUE))
+            .withMessageContaining("too large for long");
+    }
+    
+    @Test
+    public void parallelStreamShouldNotCountStepsOnSharedDeadline() {
+        ComputationDeadline deadline = ComputationDeadline.afterMillis(60_000);
+        ComputationDeadline.bind(deadline);
+        try {
+            long[] expected = iterativeFibonacci(FibonacciEngine.MAX_INDEX + 1);
+            
+            assertThat(FibonacciEngine.stream(0, FibonacciEngine.MAX_INDEX + 1).parallel().toArray())
+                .containsExactly(expected);
+            // Seeking F(0) takes no steps and split parts only poll the deadline
+            assertThat(deadline.getSteps()).isZero();
+        } finally {
+            ComputationDeadline.clear();
+        }
+    }
+    
+    @Test
+    public void parallelStreamShouldStopWhenCancelled() {
+        ComputationDeadline deadline = ComputationDeadline.afterMillis(60_000);
+        deadline.cancel();
+        ComputationDeadline.bind(deadline);
+        try {
+            assertThatExceptionOfType(ComputationAbortedException.class)
+                .isThrownBy(() -> FibonacciEngine.stream(0, FibonacciEngine.MAX_INDEX + 1).parallel().sum())
+                .withMessageContaining("cancelled");
+        } finally {
+            ComputationDeadline.clear();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example;
 
+import java.math.BigInteger;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -153,4 +155,100 @@ public class FibonacciTest {
             .as("Second call should be faster due to Spring caching")
             .isLessThan(firstCallDuration);
     }
+    
+    @Test
+    public void shouldAbortCalculationWhenDeadlineHasPassed() {
+        ComputationDeadline.bind(ComputationDeadline.afterMillis(0));
+        try {
+            assertThatExceptionOfType(ComputationAbortedException.class)
+                .isThrownBy(() -> calculator.calculateFibonacci(80))
+                .satisfies(e -> assertThat(e.getReason())
+                    .isEqualTo(ComputationAbortedException.Reason.DEADLINE_EXCEEDED));
+        } finally {
+            ComputationDeadline.clear();
+        }
+    }
+    
+    @Test
+    public void shouldAbortCalculationWhenCancelled() {
+        ComputationDeadline deadline = ComputationDeadline.afterMillis(60_000);
+        deadline.cancel();
+        ComputationDeadline.bind(deadline);
+        try {
+            assertThatExceptionOfType(ComputationAbortedException.class)
+                .isThrownBy(() -> calculator.calculateFibonacci(80))
+                .withMessageContaining("cancelled");
+        } finally {
+            ComputationDeadline.clear();
+        }
+    }
+    
+    private static BigInteger exactFibonacci(int n) {
+        BigInteger a = BigInteger.ZERO;
+        BigInteger b = BigInteger.ONE;
+        for (int i = 0; i < n; i++) {
+            BigInteger next = a.add(b);
+            a = b;
+            b = next;
+        }
+        return a;
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 12, 92, 93, 100, 1000, 4321, 20000})
+    public void digitQueriesShouldMatchExactFibonacciNumber(int n) {
+        String exact = exactFibonacci(n).toString();
+        
+        assertThat(calculator.getDigitCount(n)).isEqualTo(exact.length());
+        for (int k = 1; k <= 18; k++) {
+            assertThat(calculator.getLeadingDigits(n, k))
+                .as("First %d digits of F(%d)", k, n)
+                .isEqualTo(exact.substring(0, Math.min(k, exact.length())));
+            assertThat(calculator.getLastDigits(n, k))
+                .as("Last %d digits of F(%d)", k, n)
+                .isEqualTo(exact.substring(Math.max(0, exact.length() - k)));
+        }
+    }
+    
+    @Test
+    public void digitQueriesShouldHandleIndexNearLongLimit() {
+        long n = 1_000_000_000_000_000_000L;
+        
+        // log10 F(n) = n * log10(phi) - log10(sqrt 5) = 208987640249978733.4...
+        assertThat(calculator.getDigitCount(n)).isEqualTo(208987640249978734L);
+        assertThat(calculator.getLeadingDigits(n, 18)).hasSize(18);
+        assertThat(calculator.getLastDigits(n, 18)).hasSize(18);
+        // Last digits repeat with the Pisano period of 10^k, which is 15 * 10^(k-1) for k >= 3
+        assertThat(calculator.getLastDigits(n, 6))
+            .isEqualTo(calculator.getLastDigits(n % 1_500_000, 6));
+    }
+    
+    @Test
+    public void digitQueriesShouldHandleLongMaxValue() {
+        long n = Long.MAX_VALUE;
+        
+        // Reference values computed independently with 60-digit decimal arithmetic
+        assertThat(calculator.getDigitCount(n)).isEqualTo(1927570757129919482L);
+        assertThat(calculator.getLeadingDigits(n, 12)).isEqualTo("138168586818");
+        assertThat(calculator.getLastDigits(n, 18)).isEqualTo("391448370612861213");
+    }
+    
+    @Test
+    public void digitQueriesShouldMatchIndependentlyComputedValues() {
+        long n = 1_000_000_000_000L;
+        
+        assertThat(calculator.getDigitCount(n)).isEqualTo(208987640250L);
+        assertThat(calculator.getLeadingDigits(n, 7)).isEqualTo("4258422");
+        assertThat(calculator.getLastDigits(n, 7)).isEqualTo("0546875");
+    }
+    
+    @Test
+    public void digitQueriesShouldRejectInvalidDigitCount() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> calculator.getLastDigits(100, 19))
+            .withMessage("Digit count must be between 1 and 18");
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> calculator.getLeadingDigits(100, 0))
+            .withMessage("Digit count must be between 1 and 18");
+    }
 }
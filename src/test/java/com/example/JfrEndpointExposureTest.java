@@ -0,0 +1,33 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests that the JFR endpoint is not exposed by the default configuration
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class JfrEndpointExposureTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Test
+    public void shouldNotExposeJfrEndpointByDefault() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+            .andExpect(status().isOk());
+        
+        mockMvc.perform(post("/actuator/jfr"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/actuator/jfr"))
+            .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the JFR actuator endpoint and custom events
+ */
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,jfr")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class JfrRecordingEndpointTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Test
+    public void shouldRecordFibonacciEventsOnDemand() throws Exception {
+        mockMvc.perform(post("/actuator/jfr")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"durationSeconds\": 60}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.state", is("RUNNING")));
+        
+        mockMvc.perform(get("/api/fibonacci/33"))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/fibonacci/1000/digit-count"))
+            .andExpect(status().isOk());
+        // The second request is served by the precompression filter, not the controller
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/fibonacci/sequence?start=53&count=20"))
+                .andExpect(status().isOk());
+        }
+        
+        byte[] recording = mockMvc.perform(delete("/actuator/jfr"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsByteArray();
+        
+        Path file = Files.createTempFile("jfr-endpoint-test-", ".jfr");
+        try {
+            Files.write(file, recording);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            
+            assertThat(events)
+                .filteredOn(e -> e.getEventType().getName().equals("com.example.FibonacciComputation"))
+                .anySatisfy(e -> {
+                    assertThat(e.getInt("index")).isEqualTo(33);
+                    assertThat(e.getString("engine")).isEqualTo("recursive");
+                    assertThat(e.getLong("bytesProduced")).isEqualTo(7); // F(33) = 3524578
+                });
+            assertThat(events)
+                .filteredOn(e -> e.getEventType().getName().equals("com.example.FibonacciRequest"))
+                .anySatisfy(e -> {
+                    assertThat(e.getLong("index")).isEqualTo(33);
+                    assertThat(e.getBoolean("cacheHit")).isFalse();
+                    assertThat(e.getInt("status")).isEqualTo(200);
+                });
+            // Digit counts take no checkpoints but have no cache either
+            assertThat(events)
+                .filteredOn(e -> e.getEventType().getName().equals("com.example.FibonacciRequest"))
+                .anySatisfy(e -> {
+                    assertThat(e.getString("endpoint")).isEqualTo("digit-count");
+                    assertThat(e.getLong("steps")).isZero();
+                    assertThat(e.getBoolean("cacheHit")).isFalse();
+                });
+            assertThat(events)
+                .filteredOn(e -> e.getEventType().getName().equals("com.example.FibonacciRequest"))
+                .filteredOn(e -> e.getString("endpoint").equals("sequence"))
+                .hasSize(2)
+                .allSatisfy(e -> {
+                    assertThat(e.getLong("index")).isEqualTo(53);
+                    assertThat(e.getInt("count")).isEqualTo(20);
+                    assertThat(e.getLong("bytesProduced")).isEqualTo(264); // F(53) to F(72)
+                    assertThat(e.getInt("status")).isEqualTo(200);
+                })
+                .anySatisfy(e -> assertThat(e.getBoolean("cacheHit")).isTrue());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    public void shouldReturnNotFoundWhenNoRecordingIsRunning() throws Exception {
+        mockMvc.perform(delete("/actuator/jfr"))
+            .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,33 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the size-capped LruCache
+ */
+public class LruCacheTest {
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntryBeyondCapacity() {
+        LruCache cache = new LruCache("test", 2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a", Integer.class)).isEqualTo(1);
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c", Integer.class)).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldLoadMissingValueOnce() {
+        LruCache cache = new LruCache("test", 2);
+
+        assertThat(cache.get("a", () -> 1)).isEqualTo(1);
+        assertThat(cache.get("a", () -> 2)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the off-heap result tier
+ */
+public class OffHeapResultStoreTest {
+    
+    private OffHeapResultStore store;
+    
+    @BeforeEach
+    public void setUp() {
+        // Four blocks of 16 bytes
+        OffHeapProperties properties = new OffHeapProperties();
+        properties.setEnabled(true);
+        properties.setCapacityBytes(64);
+        properties.setBlockBytes(16);
+        store = new OffHeapResultStore(properties, new SimpleMeterRegistry());
+    }
+    
+    private static byte[] bytes(int length, int seed) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (seed + i);
+        }
+        return bytes;
+    }
+    
+    @Test
+    public void shouldStoreAndReadAcrossBlocks() throws IOException {
+        byte[] data = bytes(40, 7);
+        assertThat(store.put("a", "gzip", "application/json", data, 100)).isTrue();
+        
+        try (OffHeapResultStore.Handle handle = store.acquire("a")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            handle.transferTo(out);
+            assertThat(out.toByteArray()).isEqualTo(data);
+            assertThat(handle.compressedLength()).isEqualTo(40);
+            assertThat(handle.originalLength()).isEqualTo(100);
+            try (InputStream in = handle.openStream()) {
+                assertThat(in.readAllBytes()).isEqualTo(data);
+            }
+        }
+        assertThat(store.getUsedBytes()).isEqualTo(48);
+    }
+    
+    @Test
+    public void shouldEvictLeastRecentlyUsedResult() {
+        store.put("a", "gzip", "application/json", bytes(32, 1), 32);
+        store.put("b", "gzip", "application/json", bytes(32, 2), 32);
+        store.acquire("a").close(); // "a" is now the most recently used
+        
+        assertThat(store.put("c", "gzip", "application/json", bytes(32, 3), 32)).isTrue();
+        
+        assertThat(store.acquire("b")).isNull();
+        assertThat(store.acquire("a")).isNotNull();
+        assertThat(store.size()).isEqualTo(2);
+    }
+    
+    @Test
+    public void shouldNotReuseBlocksOfPinnedResult() throws IOException {
+        byte[] data = bytes(64, 5);
+        store.put("a", "gzip", "application/json", data, 64);
+        
+        try (OffHeapResultStore.Handle pinned = store.acquire("a")) {
+            assertThat(store.put("b", "gzip", "application/json", bytes(16, 9), 16)).isFalse();
+            
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            pinned.transferTo(out);
+            assertThat(out.toByteArray()).isEqualTo(data);
+        }
+        
+        assertThat(store.getUsedBytes()).isZero();
+        assertThat(store.put("b", "gzip", "application/json", bytes(16, 9), 16)).isTrue();
+    }
+    
+    @Test
+    public void shouldRejectResultLargerThanCapacity() {
+        assertThat(store.put("a", "gzip", "application/json", bytes(65, 0), 65)).isFalse();
+        assertThat(store.size()).isZero();
+        assertThat(store.getUsedBytes()).isZero();
+    }
+    
+    @Test
+    public void shouldRejectInvalidSlabSizes() {
+        OffHeapProperties properties = new OffHeapProperties();
+        properties.setEnabled(true);
+        properties.setBlockBytes(0);
+        assertThatThrownBy(() -> new OffHeapResultStore(properties, new SimpleMeterRegistry()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("block-bytes");
+        
+        properties.setBlockBytes(4096);
+        properties.setCapacityBytes(4095);
+        assertThatThrownBy(() -> new OffHeapResultStore(properties, new SimpleMeterRegistry()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("capacity-bytes");
+    }
+    
+    @Test
+    public void shouldBeDisabledByDefault() {
+        OffHeapResultStore disabled = new OffHeapResultStore(new OffHeapProperties(), new SimpleMeterRegistry());
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(disabled.getCapacityBytes()).isZero();
+    }
+}
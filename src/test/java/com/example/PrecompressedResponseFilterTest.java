@@ -0,0 +1,81 @@
+package com.example;
+
+import java.util.Map;
+import java.util.Random;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PrecompressedResponseFilter with the off-heap tier enabled
+ */
+public class PrecompressedResponseFilterTest {
+
+    private MeterRegistry meterRegistry;
+    private OffHeapResultStore offHeapStore;
+    private CacheManager cacheManager;
+    private PrecompressedResponseFilter filter;
+    private int chainCalls;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Four blocks of 16 bytes, far smaller than the response below
+        OffHeapProperties offHeapProperties = new OffHeapProperties();
+        offHeapProperties.setEnabled(true);
+        offHeapProperties.setCapacityBytes(64);
+        offHeapProperties.setBlockBytes(16);
+        offHeapStore = new OffHeapResultStore(offHeapProperties, meterRegistry);
+
+        CompressionProperties compressionProperties = new CompressionProperties();
+        compressionProperties.setThresholdBytes(16);
+        cacheManager = new CacheConfig().cacheManager(compressionProperties);
+        filter = new PrecompressedResponseFilter(compressionProperties, offHeapStore, cacheManager, meterRegistry);
+    }
+
+    private MockHttpServletResponse perform(byte[] body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/fibonacci/sequence");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            chainCalls++;
+            res.setContentType("application/json");
+            res.getOutputStream().write(body);
+        };
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    public void shouldNotKeepRefusedResultsOnTheHeap() throws Exception {
+        // Random bytes do not compress, so the result needs more blocks than the slab has
+        byte[] body = new byte[512];
+        new Random(42).nextBytes(body);
+
+        assertThat(perform(body).getContentAsByteArray()).isEqualTo(body);
+        assertThat(perform(body).getContentAsByteArray()).isEqualTo(body);
+
+        assertThat(chainCalls).isEqualTo(2);
+        assertThat(offHeapStore.size()).isZero();
+        assertThat((Map<?, ?>) cacheManager.getCache("compressedResults").getNativeCache()).isEmpty();
+        assertThat(meterRegistry.get("fibonacci.offheap.refused").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    public void shouldServeStoredResultsFromOffHeap() throws Exception {
+        byte[] body = "{\"sequence\":[0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0]}".getBytes();
+
+        perform(body);
+        assertThat(perform(body).getContentAsByteArray()).isEqualTo(body);
+
+        assertThat(chainCalls).isEqualTo(1);
+        assertThat(offHeapStore.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput benchmark for ZeckendorfCodec, in millions of values per second
+ *
+ * Tagged "benchmark" and excluded from the default build; run it with
+ * mvn test -Pbenchmark. Each case encodes and decodes one million values
+ * after a warm-up and reports the median of the measured rounds.
+ */
+@Tag("benchmark")
+public class ZeckendorfCodecBenchmarkTest {
+
+    private static final int VALUES = 1_000_000;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 21;
+
+    private static long[] values(LongSupplier generator) {
+        long[] values = new long[VALUES];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = generator.getAsLong();
+        }
+        return values;
+    }
+
+    private static void run(String name, long[] values) {
+        byte[] stream = ZeckendorfCodec.encode(values);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            stream = ZeckendorfCodec.encode(values);
+            ZeckendorfCodec.decode(stream, values.length);
+        }
+
+        long[] encodeNanos = new long[MEASURED_ROUNDS];
+        long[] decodeNanos = new long[MEASURED_ROUNDS];
+        long[] decoded = null;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            stream = ZeckendorfCodec.encode(values);
+            long encoded = System.nanoTime();
+            decoded = ZeckendorfCodec.decode(stream, values.length);
+            encodeNanos[i] = encoded - start;
+            decodeNanos[i] = System.nanoTime() - encoded;
+        }
+
+        assertThat(decoded).isEqualTo(values);
+        System.out.printf("%-12s encode %6.1f M values/s  decode %6.1f M values/s  %5.1f bits/value%n",
+            name, millionsPerSecond(encodeNanos, values.length), millionsPerSecond(decodeNanos, values.length),
+            stream.length * 8.0 / values.length);
+    }
+
+    private static double millionsPerSecond(long[] nanos, int count) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return count * 1_000.0 / sorted[sorted.length / 2];
+    }
+
+    @Test
+    public void smallValues() {
+        Random random = new Random(1);
+        run("below 1000", values(() -> random.nextInt(1000)));
+    }
+
+    @Test
+    public void mixedMagnitudes() {
+        Random random = new Random(1);
+        // Uniform bit length from 1 to 63
+        run("mixed", values(() -> (random.nextLong() >>> 1 >>> random.nextInt(63)) % ZeckendorfCodec.MAX_VALUE));
+    }
+
+    @Test
+    public void largeValues() {
+        Random random = new Random(1);
+        run("above 2^62", values(() -> (random.nextLong() >>> 1 | 1L << 62) % ZeckendorfCodec.MAX_VALUE));
+    }
+}
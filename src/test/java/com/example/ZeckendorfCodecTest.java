@@ -0,0 +1,113 @@
+package com.example;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Unit tests for bulk Fibonacci coding
+ */
+public class ZeckendorfCodecTest {
+    
+    @Test
+    public void shouldEncodeKnownCodewords() {
+        // 0 -> 1 = F(2) -> "11"; 1 -> 2 = F(3) -> "011"; 3 -> 4 = F(2) + F(4) -> "1011"
+        // Packed: 11 011 1011 + 0 padding = 1101 1101 1000 0000
+        assertThat(ZeckendorfCodec.encode(new long[] {0, 1, 3}))
+            .containsExactly((byte) 0xDD, (byte) 0x80);
+    }
+    
+    @Test
+    public void shouldRoundTripBoundaryValues() {
+        long[] values = {0, 1, 2, 3, 4, 5, 6, 7, 8, 11, 12, 1000, Integer.MAX_VALUE,
+            7540113804746346428L, ZeckendorfCodec.MAX_VALUE};
+        
+        assertThat(ZeckendorfCodec.decode(ZeckendorfCodec.encode(values), values.length))
+            .containsExactly(values);
+    }
+    
+    @Test
+    public void shouldRoundTripRandomValues() {
+        Random random = new Random(42);
+        long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++) {
+            // Mix small and large magnitudes
+            values[i] = (random.nextLong() >>> 1 >>> random.nextInt(63)) % ZeckendorfCodec.MAX_VALUE;
+        }
+        
+        assertThat(ZeckendorfCodec.decode(ZeckendorfCodec.encode(values), values.length))
+            .containsExactly(values);
+    }
+    
+    @Test
+    public void shouldHandleEmptyInput() {
+        assertThat(ZeckendorfCodec.encode(new long[0])).isEmpty();
+        assertThat(ZeckendorfCodec.decode(new byte[0], 10)).isEmpty();
+    }
+    
+    @Test
+    public void shouldRejectNegativeValue() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> ZeckendorfCodec.encode(new long[] {5, -1}))
+            .withMessageContaining("out of range");
+    }
+    
+    @Test
+    public void shouldRejectTruncatedStream() {
+        // "1010 0000" never terminates its codeword
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> ZeckendorfCodec.decode(new byte[] {(byte) 0xA0}, 10))
+            .withMessageContaining("ends inside a codeword");
+    }
+    
+    @Test
+    public void shouldRejectCodewordAfterLongZeroRun() {
+        // 128 zero bits put the first 1 past the largest term; the index is checked before it is narrowed
+        byte[] stream = new byte[17];
+        stream[16] = (byte) 0xC0;
+        
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> ZeckendorfCodec.decode(stream, 10))
+            .withMessageContaining("Codeword too long");
+    }
+    
+    @Test
+    public void shouldRejectStreamWithTooManyValues() {
+        byte[] stream = ZeckendorfCodec.encode(new long[] {1, 2, 3});
+        
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> ZeckendorfCodec.decode(stream, 2))
+            .withMessageContaining("more than 2 values");
+    }
+    
+    @Test
+    public void shouldInitializeWhenFirstLoadedUnderExpiredDeadline() throws Exception {
+        // A fresh class loader so the codec is initialized here rather than by an earlier test
+        URL classes = ZeckendorfCodec.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {classes}, ClassLoader.getPlatformClassLoader())) {
+            Class<?> deadlineClass = loader.loadClass(ComputationDeadline.class.getName());
+            Object expired = deadlineClass.getMethod("afterMillis", long.class).invoke(null, 0L);
+            deadlineClass.getMethod("bind", deadlineClass).invoke(null, expired);
+            
+            Class<?> codec = Class.forName(ZeckendorfCodec.class.getName(), true, loader);
+            Method encode = codec.getMethod("encode", long[].class);
+            
+            // The request that loaded the codec still times out, but the codec stays usable
+            assertThatExceptionOfType(InvocationTargetException.class)
+                .isThrownBy(() -> encode.invoke(null, (Object) new long[] {0, 1, 3}))
+                .satisfies(e -> assertThat(e.getCause().getClass().getName())
+                    .isEqualTo(ComputationAbortedException.class.getName()));
+            
+            deadlineClass.getMethod("clear").invoke(null);
+            assertThat((byte[]) encode.invoke(null, (Object) new long[] {0, 1, 3}))
+                .containsExactly((byte) 0xDD, (byte) 0x80);
+        }
+    }
+}